@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.common.util.LinkedMultiValueMap;
+import io.gravitee.common.util.MultiValueMap;
+import io.gravitee.connector.http.endpoint.HttpEndpoint;
+import io.gravitee.connector.http.endpoint.factory.HttpEndpointFactory;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.http.HttpHeaders;
+import io.gravitee.gateway.api.proxy.ProxyRequest;
+import io.gravitee.gateway.reactive.api.tracing.Tracer;
+import io.gravitee.node.api.configuration.Configuration;
+import io.gravitee.node.opentelemetry.tracer.noop.NoOpTracer;
+import io.gravitee.reporter.api.http.Metrics;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+/**
+ * Allocation-light stand-ins for the gateway objects handed to the connector, so that benchmarks measure the
+ * connector and not a mocking framework.
+ *
+ * @author GraviteeSource Team
+ */
+final class BenchmarkStubs {
+
+    private static final Tracer NOOP_TRACER = new Tracer(null, new NoOpTracer());
+
+    private BenchmarkStubs() {}
+
+    static HttpEndpoint endpoint(String target, int headers) {
+        StringBuilder configuration = new StringBuilder("{\"name\":\"benchmark\",\"target\":\"").append(target).append("\",\"headers\":[");
+        for (int i = 0; i < headers; i++) {
+            if (i > 0) {
+                configuration.append(',');
+            }
+            configuration.append("{\"name\":\"X-Endpoint-Header-").append(i).append("\",\"value\":\"endpoint-value-").append(i).append("\"}");
+        }
+        configuration.append("]}");
+
+        return endpoint(configuration.toString());
+    }
+
+    static HttpEndpoint endpoint(String configuration) {
+        return new HttpEndpointFactory().create(configuration, new ObjectMapper());
+    }
+
+    static MultiValueMap<String, String> parameters(int count) {
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        for (int i = 0; i < count; i++) {
+            parameters.add("param-" + i, "value-" + i);
+        }
+        return parameters;
+    }
+
+    static HttpHeaders clientHeaders() {
+        HttpHeaders headers = HttpHeaders.create();
+        headers.set("Accept", "application/json");
+        headers.set("Accept-Encoding", "gzip, deflate, br");
+        headers.set("User-Agent", "gravitee-connector-benchmark/1.0");
+        headers.set("Cookie", "session=2f4b6c9a1e8d7f3b5a0c; tracking=0123456789abcdef0123456789abcdef");
+        headers.set("X-Request-Id", "9f1d6a4e-5c0b-4b8e-9a7e-2d3c4b5a6f70");
+        return headers;
+    }
+
+    static ProxyRequest proxyRequest(String uri, MultiValueMap<String, String> parameters, HttpHeaders headers) {
+        final Metrics metrics = Metrics.on(System.currentTimeMillis()).build();
+        return stub(
+            ProxyRequest.class,
+            (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "uri" -> uri;
+                    case "parameters" -> parameters;
+                    case "method" -> HttpMethod.GET;
+                    case "rawMethod" -> "GET";
+                    case "headers" -> headers;
+                    case "metrics" -> metrics;
+                    default -> null;
+                }
+        );
+    }
+
+    static ExecutionContext executionContext() {
+        return stub(ExecutionContext.class, (proxy, method, args) -> "getTracer".equals(method.getName()) ? NOOP_TRACER : null);
+    }
+
+    static Configuration configuration() {
+        // Always answer with the default value given by the caller.
+        return stub(
+            Configuration.class,
+            (proxy, method, args) -> "getProperty".equals(method.getName()) && args != null && args.length == 3 ? args[2] : null
+        );
+    }
+
+    static <T> T stub(Class<T> type, InvocationHandler answers) {
+        return type.cast(
+            Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    return switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> type.getSimpleName() + "Stub";
+                    };
+                }
+
+                Object answer = answers.invoke(proxy, method, args);
+                if (answer != null) {
+                    return answer;
+                }
+                if (method.isDefault()) {
+                    return InvocationHandler.invokeDefault(proxy, method, args);
+                }
+                if (method.getReturnType().isInstance(proxy)) {
+                    // Fluent API
+                    return proxy;
+                }
+                return defaultValue(method.getReturnType());
+            })
+        );
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0D;
+        } else if (type == float.class) {
+            return 0F;
+        } else if (type == char.class) {
+            return (char) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
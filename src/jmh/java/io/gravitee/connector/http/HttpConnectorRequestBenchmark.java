@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.common.util.MultiValueMap;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end cost of {@link AbstractHttpConnector#request} against an in-process Vert.x upstream: URI handling, query
+ * parameters, Host header, endpoint headers, {@link HttpConnection#connect}, response handling and body forwarding.
+ *
+ * <p>{@link Mode#SampleTime} reports the p50/p99 latency, {@link Mode#Throughput} the request rate. Run with
+ * {@code -prof gc} (the profile default) to get the allocation rate per request.</p>
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HttpConnectorRequestBenchmark {
+
+    private static final String UPSTREAM_BODY = "{\"message\":\"Hello from the benchmark upstream\"}";
+
+    @Param({ "0", "10" })
+    public int endpointHeaders;
+
+    @Param({ "0", "5" })
+    public int queryParameters;
+
+    private Vertx vertx;
+    private HttpServer upstream;
+    private Context context;
+    private HttpConnector connector;
+    private ExecutionContext executionContext;
+    private MultiValueMap<String, String> parameters;
+    private String uri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        upstream = vertx
+            .createHttpServer()
+            .requestHandler(request -> request.response().putHeader("Content-Type", "application/json").end(UPSTREAM_BODY))
+            .listen(0)
+            .toCompletionStage()
+            .toCompletableFuture()
+            .get(10, TimeUnit.SECONDS);
+
+        String target = "http://localhost:" + upstream.actualPort() + "/echo";
+        uri = target + "/items?existing=true";
+        parameters = BenchmarkStubs.parameters(queryParameters);
+        executionContext = BenchmarkStubs.executionContext();
+
+        connector = new HttpConnector(BenchmarkStubs.endpoint(target, endpointHeaders), BenchmarkStubs.configuration());
+        connector.doStart();
+        context = vertx.getOrCreateContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        context.runOnContext(v -> {
+            try {
+                connector.doStop();
+                stopped.complete(null);
+            } catch (Exception e) {
+                stopped.completeExceptionally(e);
+            }
+        });
+        stopped.get(10, TimeUnit.SECONDS);
+        upstream.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public int request() throws Exception {
+        final CompletableFuture<Integer> done = new CompletableFuture<>();
+
+        context.runOnContext(v ->
+            connector.request(
+                executionContext,
+                BenchmarkStubs.proxyRequest(uri, parameters, BenchmarkStubs.clientHeaders()),
+                connection -> {
+                    connection.responseHandler(response -> {
+                        if (!(response instanceof HttpResponse)) {
+                            done.completeExceptionally(new IllegalStateException("Upstream call failed with status " + response.status()));
+                            return;
+                        }
+                        response.bodyHandler(buffer -> {});
+                        response.endHandler(end -> done.complete(response.status()));
+                        response.resume();
+                    });
+                    connection.end();
+                }
+            )
+        );
+
+        return done.get(10, TimeUnit.SECONDS);
+    }
+}
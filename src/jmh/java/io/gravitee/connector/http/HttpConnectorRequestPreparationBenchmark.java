@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.common.util.MultiValueMap;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.proxy.ProxyRequest;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * CPU and allocation cost of the connector side of {@link AbstractHttpConnector#request}, without any network I/O: the
+ * upstream {@link HttpClient} is replaced by a stub whose requests never complete, so only the URI handling, query
+ * parameters, Host header, endpoint headers and {@link HttpConnection#connect} preparation are measured.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class HttpConnectorRequestPreparationBenchmark {
+
+    private static final String TARGET = "http://backend.internal:8080/echo";
+
+    @Param({ "0", "10" })
+    public int endpointHeaders;
+
+    @Param({ "0", "5" })
+    public int queryParameters;
+
+    private HttpConnector connector;
+    private ExecutionContext executionContext;
+    private MultiValueMap<String, String> parameters;
+    private String uri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        uri = TARGET + "/items?existing=true";
+        parameters = BenchmarkStubs.parameters(queryParameters);
+        executionContext = BenchmarkStubs.executionContext();
+
+        connector = new HttpConnector(BenchmarkStubs.endpoint(TARGET, endpointHeaders), BenchmarkStubs.configuration());
+        connector.doStart();
+        connector.httpClients.setShared(
+            BenchmarkStubs.stub(HttpClient.class, (proxy, method, args) ->
+                Future.class.isAssignableFrom(method.getReturnType()) ? Promise.promise().future() : null
+            )
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connector.doStop();
+    }
+
+    @Benchmark
+    public void request(Blackhole blackhole) {
+        final ProxyRequest request = BenchmarkStubs.proxyRequest(uri, parameters, BenchmarkStubs.clientHeaders());
+        connector.request(executionContext, request, blackhole::consume);
+        blackhole.consume(request.headers());
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.common.util.MultiValueMap;
+import io.gravitee.connector.http.endpoint.HttpEndpoint;
+import io.gravitee.gateway.api.ExecutionContext;
+import io.gravitee.gateway.api.http.HttpHeaders;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
+import io.vertx.core.net.SelfSignedCertificate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the TLS layer of {@link AbstractHttpConnector#request} against an in-process HTTPS upstream, for each SSL
+ * engine and protocol version of the endpoint:
+ * <ul>
+ *     <li>{@link #handshake()}: a new connection per request (keep-alive disabled), i.e. the TCP connection and the TLS
+ *     handshake. Sessions are resumed when the engine and protocol allow it, as they would be in production.</li>
+ *     <li>{@link #bulk()}: requests over pooled connections, i.e. the encryption and decryption throughput of the
+ *     response body.</li>
+ * </ul>
+ *
+ * <p>The payload size only applies to {@link #bulk()}: handshakes are measured with an empty response body, so that
+ * they are not run again for each payload size.</p>
+ *
+ * <p>The OpenSSL engine needs <code>netty-tcnative-boringssl-static</code>, brought by the <code>jmh</code> profile:
+ * without it, its parameters fail instead of silently measuring the JDK engine.</p>
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+// The self-signed certificate of the upstream is generated with the JDK internal API
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/sun.security.x509=ALL-UNNAMED")
+public class TlsHandshakeBenchmark {
+
+    @Param({ "JDK", "OPENSSL" })
+    public String engine;
+
+    @Param({ "TLSv1.2", "TLSv1.3" })
+    public String protocol;
+
+    private Vertx vertx;
+    private HttpServer upstream;
+    private Context context;
+    private HttpConnector handshakeConnector;
+    private HttpConnector bulkConnector;
+    private ExecutionContext executionContext;
+    private MultiValueMap<String, String> parameters;
+    private String uri;
+
+    /**
+     * Size of the response body of {@link #bulk()}, given to the upstream as the <code>size</code> query parameter.
+     */
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        @Param({ "1024", "262144" })
+        public int payloadSize;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if ("OPENSSL".equals(engine) && !OpenSSLEngineOptions.isAvailable()) {
+            throw new IllegalStateException("OpenSSL is not available, add netty-tcnative to the classpath");
+        }
+
+        vertx = Vertx.vertx();
+        final Map<String, Buffer> payloads = new ConcurrentHashMap<>();
+        final SelfSignedCertificate certificate = SelfSignedCertificate.create("localhost");
+        upstream = vertx
+            .createHttpServer(new HttpServerOptions().setSsl(true).setKeyCertOptions(certificate.keyCertOptions()))
+            .requestHandler(request -> {
+                final String size = request.getParam("size");
+                final Buffer payload = size == null
+                    ? Buffer.buffer()
+                    : payloads.computeIfAbsent(size, s -> Buffer.buffer(new byte[Integer.parseInt(s)]));
+                request.response().putHeader("Content-Type", "application/octet-stream").end(payload);
+            })
+            .listen(0)
+            .toCompletionStage()
+            .toCompletableFuture()
+            .get(10, TimeUnit.SECONDS);
+
+        final String target = "https://localhost:" + upstream.actualPort() + "/payload";
+        uri = target;
+        parameters = BenchmarkStubs.parameters(0);
+        executionContext = BenchmarkStubs.executionContext();
+
+        handshakeConnector = new HttpConnector(endpoint(target, false), BenchmarkStubs.configuration());
+        handshakeConnector.doStart();
+        bulkConnector = new HttpConnector(endpoint(target, true), BenchmarkStubs.configuration());
+        bulkConnector.doStart();
+        context = vertx.getOrCreateContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        context.runOnContext(v -> {
+            try {
+                handshakeConnector.doStop();
+                bulkConnector.doStop();
+                stopped.complete(null);
+            } catch (Exception e) {
+                stopped.completeExceptionally(e);
+            }
+        });
+        stopped.get(10, TimeUnit.SECONDS);
+        upstream.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public long handshake() throws Exception {
+        return request(handshakeConnector, uri);
+    }
+
+    @Benchmark
+    public long bulk(Payload payload) throws Exception {
+        return request(bulkConnector, uri + "?size=" + payload.payloadSize);
+    }
+
+    private long request(HttpConnector connector, String uri) throws Exception {
+        final CompletableFuture<Long> done = new CompletableFuture<>();
+
+        context.runOnContext(v ->
+            connector.request(
+                executionContext,
+                BenchmarkStubs.proxyRequest(uri, parameters, HttpHeaders.create()),
+                connection -> {
+                    connection.responseHandler(response -> {
+                        if (!(response instanceof HttpResponse)) {
+                            done.completeExceptionally(new IllegalStateException("Upstream call failed with status " + response.status()));
+                            return;
+                        }
+                        final long[] received = new long[1];
+                        response.bodyHandler(buffer -> received[0] += buffer.length());
+                        response.endHandler(end -> done.complete(received[0]));
+                        response.resume();
+                    });
+                    connection.end();
+                }
+            )
+        );
+
+        return done.get(10, TimeUnit.SECONDS);
+    }
+
+    private HttpEndpoint endpoint(String target, boolean keepAlive) {
+        return BenchmarkStubs.endpoint(
+            "{\"name\":\"benchmark\",\"target\":\"" +
+            target +
+            "\",\"http\":{\"keepAlive\":" +
+            keepAlive +
+            "},\"ssl\":{\"trustAll\":true,\"engine\":\"" +
+            engine +
+            "\",\"protocols\":[\"" +
+            protocol +
+            "\"]}}"
+        );
+    }
+}
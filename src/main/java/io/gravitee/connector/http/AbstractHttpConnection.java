@@ -29,6 +29,9 @@ import io.vertx.core.http.WebSocketClient;
 public abstract class AbstractHttpConnection<E extends HttpEndpoint> extends io.gravitee.connector.api.AbstractConnection {
 
     protected final E endpoint;
+    private ConnectionPoolMetrics.Request pooledRequest;
+    private Handler<Response> responseListener;
+    private Handler<Throwable> failureListener;
 
     public AbstractHttpConnection(E endpoint) {
         this.endpoint = endpoint;
@@ -54,7 +57,41 @@ public abstract class AbstractHttpConnection<E extends HttpEndpoint> extends io.
         Handler<Void> tracker
     );
 
+    void pooledRequest(ConnectionPoolMetrics.Request pooledRequest) {
+        this.pooledRequest = pooledRequest;
+    }
+
+    /**
+     * @return the tracking of this request by the pool metrics, <code>null</code> if not tracked.
+     */
+    protected ConnectionPoolMetrics.Request pooledRequest() {
+        return pooledRequest;
+    }
+
+    /**
+     * Listen to the response sent to the client, before the gateway handles it.
+     */
+    void responseListener(Handler<Response> responseListener) {
+        this.responseListener = responseListener;
+    }
+
+    /**
+     * Listen to the failures which are not turned into a response sent to the client.
+     */
+    void failureListener(Handler<Throwable> failureListener) {
+        this.failureListener = failureListener;
+    }
+
+    protected void notifyFailure(Throwable cause) {
+        if (this.failureListener != null) {
+            this.failureListener.handle(cause);
+        }
+    }
+
     protected void sendToClient(Response response) {
+        if (this.responseListener != null) {
+            this.responseListener.handle(response);
+        }
         if (this.responseHandler != null) {
             this.responseHandler.handle(response);
         }
@@ -15,20 +15,28 @@
  */
 package io.gravitee.connector.http;
 
+import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.common.util.MultiValueMap;
 import io.gravitee.connector.api.AbstractConnector;
 import io.gravitee.connector.api.Connection;
 import io.gravitee.connector.api.EndpointException;
+import io.gravitee.connector.api.Response;
+import io.gravitee.connector.api.response.ClientConnectionErrorResponse;
+import io.gravitee.connector.api.response.StatusResponse;
+import io.gravitee.connector.http.endpoint.CircuitBreakerOptions;
+import io.gravitee.connector.http.endpoint.DnsResolverOptions;
 import io.gravitee.connector.http.endpoint.HttpClientSslOptions;
 import io.gravitee.connector.http.endpoint.HttpEndpoint;
 import io.gravitee.connector.http.endpoint.HttpProxy;
 import io.gravitee.connector.http.endpoint.ProtocolVersion;
+import io.gravitee.connector.http.endpoint.SslEngine;
 import io.gravitee.connector.http.endpoint.jks.JKSKeyStore;
 import io.gravitee.connector.http.endpoint.jks.JKSTrustStore;
 import io.gravitee.connector.http.endpoint.pem.PEMKeyStore;
 import io.gravitee.connector.http.endpoint.pem.PEMTrustStore;
 import io.gravitee.connector.http.endpoint.pkcs12.PKCS12KeyStore;
 import io.gravitee.connector.http.endpoint.pkcs12.PKCS12TrustStore;
+import io.gravitee.connector.http.vertx.VertxConnections;
 import io.gravitee.connector.http.ws.WebSocketConnection;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.handler.Handler;
@@ -36,31 +44,41 @@ import io.gravitee.gateway.api.http.HttpHeaderNames;
 import io.gravitee.gateway.api.proxy.ProxyRequest;
 import io.gravitee.node.api.configuration.Configuration;
 import io.gravitee.node.vertx.proxy.VertxProxyOptionsUtils;
+import io.netty.channel.Channel;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.Http2Settings;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpVersion;
 import io.vertx.core.http.PoolOptions;
 import io.vertx.core.http.WebSocketClient;
 import io.vertx.core.http.WebSocketClientOptions;
+import io.vertx.core.internal.ContextInternal;
 import io.vertx.core.net.ClientOptionsBase;
+import io.vertx.core.net.JdkSSLEngineOptions;
 import io.vertx.core.net.JksOptions;
+import io.vertx.core.net.KeyCertOptions;
 import io.vertx.core.net.OpenSSLEngineOptions;
 import io.vertx.core.net.PemKeyCertOptions;
 import io.vertx.core.net.PemTrustOptions;
 import io.vertx.core.net.PfxOptions;
 import io.vertx.core.net.ProxyOptions;
 import io.vertx.core.net.ProxyType;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
-import java.net.URLStreamHandler;
+import io.vertx.core.net.SSLEngineOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.net.TrustOptions;
+import java.util.Arrays;
 import java.util.Base64;
-import java.util.Map;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.StringJoiner;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -87,28 +105,52 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
     private HttpClientOptions httpClientOptions;
     private WebSocketClientOptions webSocketOptions;
     private PoolOptions poolOptions;
-    private volatile Function<Thread, HttpClient> httpClientFactory;
-    private volatile Function<Thread, WebSocketClient> webSocketClientFactory;
+    private HttpTarget target;
+    private EndpointHeaders endpointHeaders = EndpointHeaders.EMPTY;
+    private EndpointMeters meters;
+    private ConnectionPoolMetrics poolMetrics;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreaker circuitBreaker;
+    private LatencyHistogram responseTimes;
+    private RetryBudget retryBudget;
+    private DnsResolver dnsResolver;
+    private AddressBalancer addressBalancer;
+    private volatile TlsState tls;
+    private TlsSessions tlsSessions;
 
-    /**
-     * Dummy {@link URLStreamHandler} implementation to avoid unknown protocol issue with default implementation
-     * (which knows how to handle only http and https protocol).
-     */
-    private final URLStreamHandler URL_HANDLER = new URLStreamHandler() {
-        @Override
-        protected URLConnection openConnection(URL u) {
-            return null;
-        }
-    };
+    // Guarded by tlsReloadLock
+    private final Object tlsReloadLock = new Object();
+    private TlsStoreFiles tlsStoreFiles = TlsStoreFiles.NONE;
+
+    // Guarded by this
+    private Vertx tlsReloadVertx;
+    private long tlsReloadTimer = -1;
 
     public AbstractHttpConnector(E endpoint, Configuration configuration) {
         this.endpoint = endpoint;
         this.configuration = configuration;
     }
 
-    protected final Map<Thread, HttpClient> httpClients = new ConcurrentHashMap<>();
+    protected final EventLoopClients<HttpClient> httpClients = new EventLoopClients<>(
+        vertx -> {
+            final TlsState tls = this.tls;
+            return vertx
+                .httpClientBuilder()
+                .with(shareTls(new HttpClientOptions(tls.httpOptions()), tls, vertx))
+                .with(poolOptions)
+                .withConnectHandler(this::connectionCreated)
+                .build();
+        },
+        HttpClient::close
+    );
 
-    protected final Map<Thread, WebSocketClient> webSocketClients = new ConcurrentHashMap<>();
+    protected final EventLoopClients<WebSocketClient> webSocketClients = new EventLoopClients<>(
+        vertx -> {
+            final TlsState tls = this.tls;
+            return vertx.createWebSocketClient(shareTls(new WebSocketClientOptions(tls.webSocketOptions()), tls, vertx));
+        },
+        WebSocketClient::close
+    );
 
     private final AtomicInteger requestTracker = new AtomicInteger(0);
 
@@ -120,73 +162,502 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
         // Add the endpoint reference in metrics to know which endpoint has been invoked while serving the request
         request.metrics().setEndpoint(uri);
 
-        try {
-            final URL url = new URL(null, uri, URL_HANDLER);
+        // Most of the time, the request targets the endpoint itself which has already been parsed
+        final HttpTarget target = (this.target != null && this.target.isOriginOf(uri)) ? this.target : HttpTarget.parse(uri);
+        final String requestUri = target.pathAndQuery(uri);
 
-            final int defaultPort = isSecureProtocol(url.getProtocol()) ? SECURE_PORT : UNSECURE_PORT;
-            final int port = url.getPort() != -1 ? url.getPort() : defaultPort;
+        request.headers().set(HttpHeaderNames.HOST, target.hostHeader());
 
-            final String host = (port == UNSECURE_PORT || port == SECURE_PORT) ? url.getHost() : url.getHost() + ':' + port;
+        // Enhance proxy request with endpoint configuration
+        if (!endpointHeaders.isEmpty()) {
+            endpointHeaders.applyTo(request.headers());
+        }
 
-            request.headers().set(HttpHeaderNames.HOST, host);
+        // Create the connector to the upstream
+        final AbstractHttpConnection<HttpEndpoint> connection = create(request);
 
-            // Enhance proxy request with endpoint configuration
-            if (endpoint.getHeaders() != null && !endpoint.getHeaders().isEmpty()) {
-                endpoint
-                    .getHeaders()
-                    .forEach(header -> {
-                        request.headers().set(header.getName(), header.getValue());
-                    });
+        if (connection instanceof WebSocketConnection) {
+            final WebSocketClient webSocketClient = webSocketClients.get();
+            requestTracker.incrementAndGet();
+            final ConnectionPoolMetrics.Request pooledRequest = poolMetrics.requestPending();
+
+            // Connect to the upstream
+            connection.connect(
+                context,
+                webSocketClient,
+                target.port(),
+                target.host(),
+                requestUri,
+                connect -> {
+                    pooledRequest.acquired();
+                    connectionHandler.handle(connection);
+                },
+                result -> {
+                    pooledRequest.ended();
+                    requestTracker.decrementAndGet();
+                }
+            );
+        } else {
+            final CircuitBreaker.Call call = circuitBreaker != null ? circuitBreaker.tryAcquire() : null;
+            if (circuitBreaker != null && call == null) {
+                // The endpoint is known to be down, don't wait for the connect timeout
+                reject(request, connection, connectionHandler, new ClientConnectionErrorResponse(), "Circuit breaker is open");
+                return;
             }
 
-            // Create the connector to the upstream
-            final AbstractHttpConnection<HttpEndpoint> connection = create(request);
-
-            if (connection instanceof WebSocketConnection) {
-                final WebSocketClient webSocketClient = webSocketClients.computeIfAbsent(Thread.currentThread(), webSocketClientFactory);
-                requestTracker.incrementAndGet();
-
-                // Connect to the upstream
-                connection.connect(
-                    context,
-                    webSocketClient,
-                    port,
-                    url.getHost(),
-                    (url.getQuery() == null) ? url.getPath() : url.getPath() + URI_QUERY_DELIMITER_CHAR + url.getQuery(),
-                    connect -> connectionHandler.handle(connection),
-                    result -> requestTracker.decrementAndGet()
-                );
-            } else {
-                // Grab an instance of the HTTP client
-                final HttpClient client = httpClients.computeIfAbsent(Thread.currentThread(), httpClientFactory);
-                requestTracker.incrementAndGet();
-
-                // Connect to the upstream
-                connection.connect(
-                    context,
-                    client,
-                    port,
-                    url.getHost(),
-                    (url.getQuery() == null) ? url.getPath() : url.getPath() + URI_QUERY_DELIMITER_CHAR + url.getQuery(),
-                    connect -> connectionHandler.handle(connection),
-                    result -> requestTracker.decrementAndGet()
+            final ConcurrencyLimiter.Permit permit = concurrencyLimiter != null ? concurrencyLimiter.tryAcquire() : null;
+            if (concurrencyLimiter != null && permit == null) {
+                if (call != null) {
+                    call.release();
+                }
+                // Don't even try to reach the endpoint, it is already serving as many requests as it can handle
+                reject(
+                    request,
+                    connection,
+                    connectionHandler,
+                    new StatusResponse(HttpStatusCode.SERVICE_UNAVAILABLE_503),
+                    "Concurrency limit reached"
                 );
+                return;
+            }
+
+            // Grab an instance of the HTTP client
+            final HttpClient client = httpClients.get();
+            requestTracker.incrementAndGet();
+            final ConnectionPoolMetrics.Request pooledRequest = poolMetrics.requestPending();
+            connection.pooledRequest(pooledRequest);
+            if (connection instanceof HttpConnection) {
+                ((HttpConnection<?>) connection).responseTimes(responseTimes);
+                ((HttpConnection<?>) connection).retryBudget(retryBudget);
+                ((HttpConnection<?>) connection).concurrencyLimiter(concurrencyLimiter);
+                ((HttpConnection<?>) connection).circuitBreaker(circuitBreaker);
+                ((HttpConnection<?>) connection).poolMetrics(poolMetrics);
+                // Only requests to the endpoint host can be spread across its addresses
+                ((HttpConnection<?>) connection).addressBalancer(target == this.target ? addressBalancer : null);
+            }
+            if (permit != null || call != null) {
+                connection.responseListener(response -> {
+                    if (pooledRequest.isRejected()) {
+                        // The 503 comes from the local pool wait queue, not from the endpoint: it says nothing of its
+                        // health nor of its latency, the permit and the call are only released
+                        return;
+                    }
+                    if (isOverloaded(response)) {
+                        failed(permit, call);
+                    } else {
+                        if (permit != null) {
+                            permit.succeeded();
+                        }
+                        if (call != null) {
+                            call.succeeded();
+                        }
+                    }
+                });
+                connection.failureListener(cause -> failed(permit, call));
             }
-        } catch (MalformedURLException ex) {
-            throw new IllegalArgumentException();
+
+            // Connect to the upstream
+            connection.connect(
+                context,
+                client,
+                target.port(),
+                target.host(),
+                requestUri,
+                connect -> {
+                    pooledRequest.acquired();
+                    connectionHandler.handle(connection);
+                },
+                result -> {
+                    if (permit != null) {
+                        permit.release();
+                    }
+                    if (call != null) {
+                        call.release();
+                    }
+                    pooledRequest.ended();
+                    requestTracker.decrementAndGet();
+                }
+            );
+        }
+    }
+
+    private void reject(
+        ProxyRequest request,
+        AbstractHttpConnection<HttpEndpoint> connection,
+        Handler<Connection> connectionHandler,
+        Response response,
+        String reason
+    ) {
+        request.metrics().setMessage(reason + " for endpoint " + endpoint.name());
+        connectionHandler.handle(connection);
+        connection.sendToClient(response);
+    }
+
+    private static void failed(ConcurrencyLimiter.Permit permit, CircuitBreaker.Call call) {
+        if (permit != null) {
+            permit.dropped();
         }
+        if (call != null) {
+            call.failed();
+        }
+    }
+
+    private static boolean isOverloaded(Response response) {
+        // 502, 503 and 504 are the statuses of connection errors, timeouts and rejections
+        return (
+            response.status() == HttpStatusCode.BAD_GATEWAY_502 ||
+            response.status() == HttpStatusCode.SERVICE_UNAVAILABLE_503 ||
+            response.status() == HttpStatusCode.GATEWAY_TIMEOUT_504
+        );
     }
 
     protected abstract AbstractHttpConnection<HttpEndpoint> create(ProxyRequest request);
 
+    /**
+     * @return the metrics of the connection pool(s) of this endpoint, available once the connector has been started.
+     */
+    public ConnectionPoolMetrics poolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * @return the adaptive concurrency limiter of this endpoint, <code>null</code> if not enabled.
+     */
+    public ConcurrencyLimiter concurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return the circuit breaker of this endpoint, <code>null</code> if not enabled.
+     */
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return the TLS sessions of this endpoint, <code>null</code> if it is not secured.
+     */
+    TlsSessions tlsSessions() {
+        return tlsSessions;
+    }
+
     @Override
     protected void doStart() throws Exception {
+        this.target = parseTarget();
+        this.endpointHeaders = EndpointHeaders.compile(endpoint.getHeaders());
+        this.meters = EndpointMeters.of(endpoint.name(), endpoint.target());
+        this.poolMetrics = new ConnectionPoolMetrics(endpoint.name(), endpoint.target());
+        poolMetrics.bindTo(meters);
+        this.concurrencyLimiter = createConcurrencyLimiter();
+        final CircuitBreakerOptions circuitBreakerOptions = endpoint.getCircuitBreakerOptions();
+        this.circuitBreaker = circuitBreakerOptions != null && circuitBreakerOptions.isEnabled()
+            ? new CircuitBreaker(endpoint.name(), circuitBreakerOptions)
+            : null;
+        if (circuitBreaker != null) {
+            circuitBreaker.bindTo(meters);
+        }
+        // Response times are only needed to hedge requests once they are slower than most of the previous ones
+        this.responseTimes = endpoint.getHttpClientOptions().getHedgingDelay() < 0 ? new LatencyHistogram() : null;
+        // Hedged requests are retries as well, taken from the same budget
+        final io.gravitee.connector.http.endpoint.HttpClientOptions clientOptions = endpoint.getHttpClientOptions();
+        this.retryBudget = clientOptions.getMaxConnectRetries() > 0 || clientOptions.getHedgingDelay() != 0
+            ? new RetryBudget(clientOptions.getRetryBudgetPercent())
+            : null;
+        this.dnsResolver = createDnsResolver();
+        if (dnsResolver != null) {
+            dnsResolver.bindTo(meters);
+        }
+        this.addressBalancer = createAddressBalancer();
         this.httpClientOptions = this.createHttpClientOptions();
         this.poolOptions = this.createPoolOptions();
         this.webSocketOptions = this.createWebSocketOptions();
-        this.httpClientFactory = thread -> Vertx.currentContext().owner().createHttpClient(httpClientOptions, poolOptions);
-        this.webSocketClientFactory = thread -> Vertx.currentContext().owner().createWebSocketClient(webSocketOptions);
+        // Both HTTP and WebSocket options are built from the same stores
+        synchronized (tlsReloadLock) {
+            this.tlsStoreFiles = TlsStoreFiles.of(httpClientOptions.getTrustOptions(), httpClientOptions.getKeyCertOptions());
+            this.tls = tlsState(tlsStoreFiles.read(), httpClientOptions.getTrustOptions(), httpClientOptions.getKeyCertOptions());
+        }
+        this.tlsSessions = httpClientOptions.isSsl() ? new TlsSessions(endpoint.getHttpClientSslOptions()) : null;
+        if (tlsSessions != null) {
+            tlsSessions.bindTo(meters);
+        }
+        // A single pool for the endpoint makes max concurrent connections a limit for the whole instance
+        this.httpClients.shareAcrossEventLoops(endpoint.getHttpClientOptions().isSharedPool());
+        this.webSocketClients.shareAcrossEventLoops(endpoint.getHttpClientOptions().isSharedPool());
         printHttpClientConfiguration();
+        logTlsReload();
+
+        if (endpoint.getHttpClientOptions().getWarmUpConnections() > 0) {
+            // Each client serving event loops is warmed up when created: the pool of an event loop is created by its
+            // first request, which warm-up never delays since it leaves a connection of each pool to requests.
+            httpClients.onEventLoopClient(this::warmUp);
+            final Context context = Vertx.currentContext();
+            if (context != null && (context.isEventLoopContext() || endpoint.getHttpClientOptions().isSharedPool())) {
+                // Create the client of the current event loop (or the shared one) right away, before any request
+                httpClients.get();
+            } else {
+                LOGGER.warn(
+                    "Connections of endpoint[{}] can't be warmed up before the first request: not started from an event loop",
+                    endpoint.name()
+                );
+            }
+        }
+    }
+
+    private void connectionCreated(io.vertx.core.http.HttpConnection connection) {
+        poolMetrics.connectionCreated(connection);
+        final AddressBalancer addressBalancer = this.addressBalancer;
+        if (addressBalancer != null) {
+            final Channel channel = VertxConnections.channel(connection);
+            if (channel != null) {
+                addressBalancer.connected(channel);
+            }
+        }
+    }
+
+    private ConcurrencyLimiter createConcurrencyLimiter() {
+        final io.gravitee.connector.http.endpoint.HttpClientOptions options = endpoint.getHttpClientOptions();
+        if (!options.isAdaptiveConcurrencyLimit()) {
+            return null;
+        }
+        // Start from the connections the pools can open, then let the limiter adapt it to the actual latency of the
+        // endpoint. Each event loop has its own pool unless shared, and so does each resolved address when they are
+        // balanced: the addresses are not known yet, the limiter grows toward their pools from the first responses.
+        final int pools = options.isSharedPool() ? 1 : eventLoops();
+        final long initialLimit = (long) options.getMaxConcurrentConnections() * pools;
+        return new ConcurrencyLimiter((int) Math.min(Integer.MAX_VALUE, initialLimit), options.getMaxConcurrencyLimit());
+    }
+
+    /**
+     * @return the number of event loops of the Vert.x instance the connector is started from, or the default one when
+     * not started from a Vert.x context.
+     */
+    private static int eventLoops() {
+        final ContextInternal context = (ContextInternal) Vertx.currentContext();
+        if (context == null) {
+            return VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+        }
+        int eventLoops = 0;
+        for (EventExecutor ignored : context.owner().nettyEventLoopGroup()) {
+            eventLoops++;
+        }
+        return Math.max(1, eventLoops);
+    }
+
+    private DnsResolver createDnsResolver() {
+        final DnsResolverOptions options = endpoint.getDnsResolverOptions();
+        if (options == null || !options.isEnabled() || !isResolvedByConnector()) {
+            return null;
+        }
+        return new DnsResolver(options);
+    }
+
+    private AddressBalancer createAddressBalancer() {
+        final io.gravitee.connector.http.endpoint.HttpClientOptions options = endpoint.getHttpClientOptions();
+        if ((!options.isAddressLoadBalancing() && dnsResolver == null) || !isResolvedByConnector()) {
+            return null;
+        }
+        // Addresses resolved by the endpoint resolver are given to the client, even when they are not balanced
+        return new AddressBalancer(
+            target.host(),
+            target.port(),
+            options.getAddressRefreshInterval(),
+            dnsResolver,
+            options.isAddressLoadBalancing()
+        );
+    }
+
+    private boolean isResolvedByConnector() {
+        final HttpProxy proxy = endpoint.getHttpProxy();
+        if (proxy != null && proxy.isEnabled()) {
+            // Addresses resolved by the proxy
+            return false;
+        }
+        // Nothing to resolve for an IP address
+        return !NetUtil.isValidIpV4Address(target.host()) && !NetUtil.isValidIpV6Address(target.host());
+    }
+
+    /**
+     * Give the client the trust and key material shared with the other clients and connectors using the same stores,
+     * instead of letting it parse them again, and the TLS sessions shared by the clients of the endpoint.
+     */
+    private <O extends ClientOptionsBase> O shareTls(O options, TlsState tls, Vertx vertx) {
+        if (tls.trustMaterial() != null) {
+            options.setTrustOptions(tls.trustMaterial().trustOptions(vertx));
+        }
+        if (tls.keyMaterial() != null) {
+            options.setKeyCertOptions(tls.keyMaterial().keyCertOptions(vertx));
+        }
+        if (tlsSessions != null) {
+            options.setSslEngineOptions(tlsSessions.engineOptions(options.getSslEngineOptions()));
+        }
+        watchTlsStores(vertx);
+        return options;
+    }
+
+    /**
+     * Build copies of the HTTP and WebSocket options using the stores built from the files of the snapshot, so that the
+     * stores are parsed from the bytes of the version recorded, and acquire their shared material. The material
+     * previously acquired, if any, is to be released by the caller.
+     */
+    private TlsState tlsState(TlsStoreFiles.Snapshot snapshot, TrustOptions trustOptions, KeyCertOptions keyCertOptions) {
+        final TrustOptions trust = snapshot.inline(trustOptions);
+        final KeyCertOptions keyCert = snapshot.inline(keyCertOptions);
+        final HttpClientOptions httpOptions = new HttpClientOptions(httpClientOptions);
+        httpOptions.setTrustOptions(trust);
+        httpOptions.setKeyCertOptions(keyCert);
+        final WebSocketClientOptions wsOptions = new WebSocketClientOptions(webSocketOptions);
+        wsOptions.setTrustOptions(trust);
+        wsOptions.setKeyCertOptions(keyCert);
+        return new TlsState(httpOptions, wsOptions, TlsMaterialCache.acquire(trust), TlsMaterialCache.acquire(keyCert), snapshot.version());
+    }
+
+    /**
+     * Log how the stores of the endpoint are refreshed: store files are only watched when a reload interval is set,
+     * and stores given inline are only refreshed by redeploying the endpoint.
+     */
+    private void logTlsReload() {
+        if (!httpClientOptions.isSsl()) {
+            return;
+        }
+        final HttpClientSslOptions sslOptions = endpoint.getHttpClientSslOptions();
+        if (!tlsStoreFiles.isEmpty() && (sslOptions == null || sslOptions.getReloadInterval() <= 0)) {
+            LOGGER.info("TLS store files of endpoint[{}] are not watched, set a reload interval to use them once rotated", endpoint.name());
+        }
+        if (TlsStoreFiles.hasValues(httpClientOptions.getTrustOptions(), httpClientOptions.getKeyCertOptions())) {
+            LOGGER.info("TLS stores of endpoint[{}] are given inline, they are only refreshed by redeploying it", endpoint.name());
+        }
+    }
+
+    /**
+     * Check the store files periodically once a client uses them, from the Vert.x instance of this client.
+     */
+    private synchronized void watchTlsStores(Vertx vertx) {
+        final HttpClientSslOptions sslOptions = endpoint.getHttpClientSslOptions();
+        if (tlsReloadTimer != -1 || tlsStoreFiles.isEmpty() || sslOptions == null || sslOptions.getReloadInterval() <= 0) {
+            return;
+        }
+        tlsReloadVertx = vertx;
+        tlsReloadTimer = vertx.setPeriodic(sslOptions.getReloadInterval(), timer -> checkTlsStores(vertx));
+    }
+
+    private void checkTlsStores(Vertx vertx) {
+        vertx
+            .executeBlocking(
+                () -> {
+                    reloadTls();
+                    return null;
+                },
+                false
+            )
+            .onFailure(t -> LOGGER.warn("Unable to reload TLS stores of endpoint[{}]: {}", endpoint.name(), t.getMessage()));
+    }
+
+    /**
+     * Reload the trust and key store files of the endpoint once their content has changed. Stores given inline are
+     * resolved with the endpoint configuration, they are only refreshed by redeploying the endpoint.
+     *
+     * New connections use the new stores, connections already established are kept until they are closed, so that the
+     * connection pools are not drained. This call is blocking, the files being read from the calling thread: it must
+     * not be made from an event loop.
+     */
+    private void reloadTls() throws EndpointException {
+        synchronized (tlsReloadLock) {
+            final TlsState current = tls;
+            if (current == null || !httpClientOptions.isSsl()) {
+                return;
+            }
+            TlsStoreFiles.Snapshot snapshot = tlsStoreFiles.read();
+            if (snapshot.version().equals(current.version())) {
+                return;
+            }
+
+            final HttpClientOptions reloaded = createHttpClientOptions();
+            final TlsStoreFiles reloadedFiles = TlsStoreFiles.of(reloaded.getTrustOptions(), reloaded.getKeyCertOptions());
+            if (!reloadedFiles.paths().equals(tlsStoreFiles.paths())) {
+                // The endpoint configuration now points to other files
+                snapshot = reloadedFiles.read();
+            }
+            this.tlsStoreFiles = reloadedFiles;
+            // Acquired before the previous material is released, so that stores which did not change stay shared
+            final TlsState next = tlsState(snapshot, reloaded.getTrustOptions(), reloaded.getKeyCertOptions());
+            // Published before updating the registered clients: a client registered after the update is built from it
+            this.tls = next;
+            current.release();
+            if (tlsSessions != null) {
+                // Sessions of the previous material can't be resumed with the new one
+                tlsSessions.reloaded();
+            }
+
+            final Vertx vertx = httpClients.vertx() != null ? httpClients.vertx() : webSocketClients.vertx();
+            httpClients.forEach(client ->
+                onTlsReloaded(client.updateSSLOptions(shareTls(new HttpClientOptions(next.httpOptions()), next, vertx).getSslOptions()))
+            );
+            webSocketClients.forEach(client ->
+                onTlsReloaded(
+                    client.updateSSLOptions(shareTls(new WebSocketClientOptions(next.webSocketOptions()), next, vertx).getSslOptions())
+                )
+            );
+        }
+        LOGGER.info("TLS stores of endpoint[{}] have been reloaded", endpoint.name());
+    }
+
+    private void onTlsReloaded(Future<Boolean> update) {
+        update.onFailure(t -> LOGGER.warn("Unable to update TLS stores of endpoint[{}]: {}", endpoint.name(), t.getMessage()));
+    }
+
+    private void releaseTlsMaterial() {
+        synchronized (tlsReloadLock) {
+            final TlsState current = tls;
+            if (current != null) {
+                current.release();
+                // Clients still created afterwards parse the stores on their own
+                tls = new TlsState(current.httpOptions(), current.webSocketOptions(), null, null, current.version());
+            }
+        }
+    }
+
+    /**
+     * Options of the clients along with the trust and key material they share, published as a whole so that a client
+     * never mixes the options of a version of the stores with the material of another.
+     */
+    private record TlsState(
+        HttpClientOptions httpOptions,
+        WebSocketClientOptions webSocketOptions,
+        TlsMaterialCache.Entry trustMaterial,
+        TlsMaterialCache.Entry keyMaterial,
+        String version
+    ) {
+        private void release() {
+            if (trustMaterial != null) {
+                TlsMaterialCache.release(trustMaterial);
+            }
+            if (keyMaterial != null) {
+                TlsMaterialCache.release(keyMaterial);
+            }
+        }
+    }
+
+    private void warmUp(HttpClient client) {
+        final io.gravitee.connector.http.endpoint.HttpClientOptions options = endpoint.getHttpClientOptions();
+        final boolean multiplexed = options.getVersion() == ProtocolVersion.HTTP_2;
+        // Leave a connection of each pool to the requests arriving during warm-up, so that they never wait behind it
+        final int connections = multiplexed ? 1 : Math.min(options.getWarmUpConnections(), options.getMaxConcurrentConnections() - 1);
+        if (connections <= 0) {
+            LOGGER.warn("Connections of endpoint[{}] are not warmed up: its pool is limited to a single connection", endpoint.name());
+            return;
+        }
+
+        final MultiMap headers = io.vertx.core.http.HttpHeaders.headers();
+        endpointHeaders.applyTo(headers);
+        // Requests spread across the resolved addresses use a pool per address
+        final Future<List<SocketAddress>> servers = addressBalancer == null
+            ? Future.succeededFuture(List.of())
+            : addressBalancer
+                .resolve()
+                .map(addresses -> Arrays.stream(addresses).map(AddressBalancer.UpstreamAddress::socketAddress).toList());
+        servers.onSuccess(addresses ->
+            ConnectionWarmUp.warmUp(client, endpoint.name(), target, addresses, headers, connections, multiplexed, options.getReadTimeout())
+        );
     }
 
     /**
@@ -204,6 +675,9 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
             poolOptions.setHttp1MaxSize(maxConnections);
         }
 
+        // Bound the requests waiting for a connection so that a slow backend can't make them pile up
+        poolOptions.setMaxWaitQueueSize(endpoint.getHttpClientOptions().getMaxWaitQueueSize());
+
         return poolOptions;
     }
 
@@ -246,6 +720,7 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
         if (endpoint.getHttpClientOptions().getVersion() == ProtocolVersion.HTTP_2) {
             options.setProtocolVersion(HttpVersion.HTTP_2);
             options.setHttp2ClearTextUpgrade(endpoint.getHttpClientOptions().isClearTextUpgrade());
+            configureHttp2Options(options);
         }
 
         // setVerifyHost is not on ClientOptionsBase, set it on the concrete type
@@ -257,6 +732,24 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
         return options;
     }
 
+    protected void configureHttp2Options(HttpClientOptions options) {
+        final io.gravitee.connector.http.endpoint.HttpClientOptions endpointOptions = endpoint.getHttpClientOptions();
+
+        options.setHttp2MultiplexingLimit(endpointOptions.getHttp2MultiplexingLimit());
+        options.setHttp2ConnectionWindowSize(endpointOptions.getHttp2ConnectionWindowSize());
+        options.setHttp2KeepAliveTimeout((int) (endpointOptions.getHttp2KeepAliveTimeout() / 1000));
+
+        // Settings sent to the server in the connection preface
+        final Http2Settings settings = options.getInitialSettings();
+        if (endpointOptions.getHttp2StreamWindowSize() >= 0) {
+            settings.setInitialWindowSize(endpointOptions.getHttp2StreamWindowSize());
+        }
+        settings.setHeaderTableSize(endpointOptions.getHttp2HeaderTableSize());
+        if (endpointOptions.getHttp2MaxConcurrentStreams() >= 0) {
+            settings.setMaxConcurrentStreams(endpointOptions.getHttp2MaxConcurrentStreams());
+        }
+    }
+
     private WebSocketClientOptions createWebSocketOptions() throws EndpointException {
         WebSocketClientOptions options = new WebSocketClientOptions();
         configureCommonOptions(options);
@@ -274,15 +767,12 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
     }
 
     private void configureCommonOptions(ClientOptionsBase options) throws EndpointException {
+        // Tag the Vert.x client metrics, if enabled on the node, with the endpoint they belong to
+        options.setMetricsName(endpoint.name());
         options.setIdleTimeout((int) (endpoint.getHttpClientOptions().getIdleTimeout() / 1000));
         options.setConnectTimeout((int) endpoint.getHttpClientOptions().getConnectTimeout());
 
-        URL target;
-        try {
-            target = new URL(null, endpoint.target(), URL_HANDLER);
-        } catch (MalformedURLException e) {
-            throw new EndpointException("Endpoint target is not valid " + endpoint.target());
-        }
+        HttpTarget target = this.target != null ? this.target : parseTarget();
 
         // Configure proxy
         HttpProxy proxy = endpoint.getHttpProxy();
@@ -304,18 +794,26 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
 
         HttpClientSslOptions sslOptions = endpoint.getHttpClientSslOptions();
 
-        if (isSecureProtocol(target.getProtocol())) {
+        if (target.secure()) {
             // Configure SSL
             options.setSsl(true);
             options.setUseAlpn(true);
 
-            if (configuration.getProperty("http.ssl.openssl", Boolean.class, false)) {
-                options.setSslEngineOptions(new OpenSSLEngineOptions());
+            final SSLEngineOptions engineOptions = createSslEngineOptions(sslOptions);
+            if (engineOptions != null) {
+                options.setSslEngineOptions(engineOptions);
             }
 
             if (sslOptions != null) {
                 options.setTrustAll(sslOptions.isTrustAll());
 
+                if (sslOptions.getProtocols() != null && !sslOptions.getProtocols().isEmpty()) {
+                    options.setEnabledSecureTransportProtocols(new LinkedHashSet<>(sslOptions.getProtocols()));
+                }
+                if (sslOptions.getCipherSuites() != null) {
+                    sslOptions.getCipherSuites().forEach(options::addEnabledCipherSuite);
+                }
+
                 // Client trust configuration
                 if (!sslOptions.isTrustAll() && sslOptions.getTrustStore() != null) {
                     switch (sslOptions.getTrustStore().getType()) {
@@ -410,6 +908,46 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
         }
     }
 
+    /**
+     * @return the options of the SSL engine of the endpoint, <code>null</code> for the default one (JDK).
+     */
+    private SSLEngineOptions createSslEngineOptions(HttpClientSslOptions sslOptions) throws EndpointException {
+        final SslEngine engine = sslOptions != null && sslOptions.getEngine() != null ? sslOptions.getEngine() : SslEngine.DEFAULT;
+        // Named groups are set on the SSL parameters of the engines, which the OpenSSL engine ignores
+        final boolean namedGroups = sslOptions != null && sslOptions.getNamedGroups() != null && !sslOptions.getNamedGroups().isEmpty();
+        switch (engine) {
+            case AUTO:
+                return OpenSSLEngineOptions.isAvailable() && !namedGroups ? new OpenSSLEngineOptions() : null;
+            case OPENSSL:
+                if (OpenSSLEngineOptions.isAvailable()) {
+                    return openSslEngineOptions(namedGroups);
+                }
+                LOGGER.warn("OpenSSL is not available, endpoint[{}] uses the JDK SSL engine", endpoint.name());
+                return null;
+            case JDK:
+                return new JdkSSLEngineOptions();
+            default:
+                return configuration.getProperty("http.ssl.openssl", Boolean.class, false) ? openSslEngineOptions(namedGroups) : null;
+        }
+    }
+
+    private OpenSSLEngineOptions openSslEngineOptions(boolean namedGroups) throws EndpointException {
+        if (namedGroups) {
+            throw new EndpointException(
+                "Named groups are not supported by the OpenSSL engine, use the JDK engine for endpoint " + endpoint.name()
+            );
+        }
+        return new OpenSSLEngineOptions();
+    }
+
+    private HttpTarget parseTarget() throws EndpointException {
+        try {
+            return HttpTarget.parse(endpoint.target());
+        } catch (IllegalArgumentException e) {
+            throw new EndpointException("Endpoint target is not valid " + endpoint.target());
+        }
+    }
+
     @Override
     protected void doStop() throws Exception {
         LOGGER.debug(
@@ -419,32 +957,43 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
             requestTracker.get()
         );
 
+        LOGGER.debug("Connection pool of endpoint[{}] on shutdown: {}", endpoint.name(), poolMetrics);
+        if (concurrencyLimiter != null) {
+            LOGGER.debug("Concurrency limit of endpoint[{}] on shutdown: {}", endpoint.name(), concurrencyLimiter);
+        }
+        if (retryBudget != null) {
+            LOGGER.debug("Retries of endpoint[{}] on shutdown: {}", endpoint.name(), retryBudget);
+        }
+        if (circuitBreaker != null) {
+            LOGGER.debug("Circuit breaker of endpoint[{}] on shutdown: {}", endpoint.name(), circuitBreaker);
+        }
+        if (dnsResolver != null) {
+            LOGGER.debug("DNS resolver of endpoint[{}] on shutdown: {}", endpoint.name(), dnsResolver);
+        }
+        if (tlsSessions != null) {
+            LOGGER.debug("TLS sessions of endpoint[{}] on shutdown: {}", endpoint.name(), tlsSessions);
+        }
+
         if (requestTracker.get() > 0) {
             LOGGER.warn("Cancel requests[{}] for endpoint[{}] target[{}]", requestTracker.get(), endpoint.name(), endpoint.target());
         }
 
-        httpClients
-            .values()
-            .forEach(httpClient -> {
-                try {
-                    httpClient.close();
-                } catch (IllegalStateException ise) {
-                    LOGGER.warn(ise.getMessage());
-                }
-            });
-
-        webSocketClients
-            .values()
-            .forEach(webSocketClient -> {
-                try {
-                    webSocketClient.close();
-                } catch (IllegalStateException ise) {
-                    LOGGER.warn(ise.getMessage());
-                }
-            });
-
-        httpClients.clear();
-        webSocketClients.clear();
+        httpClients.close();
+        webSocketClients.close();
+        if (meters != null) {
+            meters.close();
+        }
+        if (dnsResolver != null) {
+            dnsResolver.close();
+        }
+        synchronized (this) {
+            if (tlsReloadTimer != -1) {
+                tlsReloadVertx.cancelTimer(tlsReloadTimer);
+                tlsReloadTimer = -1;
+                tlsReloadVertx = null;
+            }
+        }
+        releaseTlsMaterial();
     }
 
     /**
@@ -498,6 +1047,24 @@ public abstract class AbstractHttpConnector<E extends HttpEndpoint> extends Abst
                 ", DecompressionSupported='" +
                 httpClientOptions.isDecompressionSupported() +
                 '\'' +
+                ", SharedPool='" +
+                endpoint.getHttpClientOptions().isSharedPool() +
+                '\'' +
+                ", AdaptiveConcurrencyLimit='" +
+                endpoint.getHttpClientOptions().isAdaptiveConcurrencyLimit() +
+                '\'' +
+                ", HedgingDelay='" +
+                endpoint.getHttpClientOptions().getHedgingDelay() +
+                '\'' +
+                ", MaxConnectRetries='" +
+                endpoint.getHttpClientOptions().getMaxConnectRetries() +
+                '\'' +
+                ", AddressLoadBalancing='" +
+                (addressBalancer != null && endpoint.getHttpClientOptions().isAddressLoadBalancing()) +
+                '\'' +
+                ", DnsResolver='" +
+                (dnsResolver != null) +
+                '\'' +
                 '}'
         );
 
@@ -0,0 +1,365 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.netty.channel.Channel;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.SocketAddress;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spreads the requests to an endpoint across all the addresses its host name resolves to.
+ *
+ * Vert.x pools connections per server address: sending each request to an explicit IP address, while keeping the host
+ * name for the <code>Host</code> header and TLS, gives a pool per address instead of a single pool sticking to the
+ * addresses resolved when its connections were opened. The pool size applies to each of these pools: an endpoint
+ * resolving to N addresses may open up to N times the max concurrent connections.
+ *
+ * Each request goes to the least loaded of two randomly chosen addresses (power of two choices), the load being the
+ * number of requests in flight. Addresses failing to connect are ejected for {@link #EJECTION_DURATION} ms. The host
+ * name is resolved again, without blocking the event loop, once the refresh interval has elapsed; addresses still
+ * resolved keep their state. A failed lookup is retried after {@link #LOOKUP_RETRY_DELAY} ms at most, so that an
+ * endpoint whose first lookup failed doesn't wait for the whole refresh interval before getting any address.
+ *
+ * The host name is resolved by the endpoint {@link DnsResolver} when there is one. Without balancing, the balancer only
+ * fails over: requests go to the first resolved address which is not ejected. No address is selected until the first
+ * lookup completes: requests wait for it with {@link #resolve()}, otherwise Vert.x would resolve the host name itself.
+ *
+ * When the host has both IPv4 and IPv6 addresses, requests go to the family of the first resolved address as long as
+ * one of its addresses is available. An address of the other family can be selected to race a slow connection, as long
+ * as no connection to the address is open: once one is, its family is reachable, and a slow request is waiting for a
+ * connection of the pool rather than for a connection to be established.
+ *
+ * The balancer is shared by all the event loops using the endpoint.
+ *
+ * @author GraviteeSource Team
+ */
+final class AddressBalancer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AddressBalancer.class);
+
+    static final long EJECTION_DURATION = 10000;
+    static final long LOOKUP_RETRY_DELAY = 1000;
+
+    private final String host;
+    private final int port;
+    private final long refreshInterval;
+    private final DnsResolver resolver;
+    private final boolean balanced;
+
+    private final AtomicBoolean resolving = new AtomicBoolean();
+    private volatile UpstreamAddress[] addresses = new UpstreamAddress[0];
+    private volatile UpstreamAddress[] preferred = new UpstreamAddress[0];
+    private volatile long refreshAt;
+    private volatile boolean resolved;
+    private volatile Future<?> lookup;
+
+    /**
+     * @param refreshInterval the time, in milliseconds, after which the host name is resolved again.
+     */
+    AddressBalancer(String host, int port, long refreshInterval) {
+        this(host, port, refreshInterval, null, true);
+    }
+
+    /**
+     * @param resolver the resolver of the endpoint, <code>null</code> to use the one of the JVM.
+     * @param balanced <code>false</code> to send all the requests to the first available address.
+     */
+    AddressBalancer(String host, int port, long refreshInterval, DnsResolver resolver, boolean balanced) {
+        this.host = host;
+        this.port = port;
+        this.refreshInterval = TimeUnit.MILLISECONDS.toNanos(refreshInterval);
+        this.resolver = resolver;
+        this.balanced = balanced;
+    }
+
+    /**
+     * Select the address to send a request to, counting it as in flight until {@link UpstreamAddress#release()}.
+     *
+     * @return the address, or <code>null</code> while the host name has not been resolved yet.
+     */
+    UpstreamAddress select() {
+        refreshIfNeeded();
+
+        final UpstreamAddress[] all = addresses;
+        if (all.length == 0) {
+            return null;
+        }
+        final UpstreamAddress[] preferred = this.preferred;
+        final UpstreamAddress[] candidates = preferred.length < all.length && hasAvailable(preferred) ? preferred : all;
+
+        UpstreamAddress selected;
+        if (candidates.length == 1) {
+            selected = candidates[0];
+        } else if (!balanced) {
+            selected = firstAvailable(candidates);
+        } else {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int first = random.nextInt(candidates.length);
+            final int second = (first + 1 + random.nextInt(candidates.length - 1)) % candidates.length;
+            selected = leastLoaded(candidates[first], candidates[second]);
+            if (selected.isEjected()) {
+                // Both candidates are ejected, look for any available address
+                for (int i = 1; i < candidates.length; i++) {
+                    final UpstreamAddress candidate = candidates[(first + i) % candidates.length];
+                    if (!candidate.isEjected()) {
+                        selected = candidate;
+                        break;
+                    }
+                }
+            }
+        }
+
+        selected.inFlight.incrementAndGet();
+        return selected;
+    }
+
+    /**
+     * Select an address of the other family than the given one, to race a connection to it which is not established yet.
+     *
+     * @return the least loaded available address of the other family, or <code>null</code> if there is none.
+     */
+    UpstreamAddress selectOtherFamily(UpstreamAddress address) {
+        UpstreamAddress selected = null;
+        for (UpstreamAddress candidate : addresses) {
+            if (
+                candidate.ipv6 != address.ipv6 &&
+                !candidate.isEjected() &&
+                (selected == null || candidate.inFlight.get() < selected.inFlight.get())
+            ) {
+                selected = candidate;
+            }
+        }
+
+        if (selected != null) {
+            selected.inFlight.incrementAndGet();
+        }
+        return selected;
+    }
+
+    /**
+     * Select another address of the same family than the given one, to hedge a request which is late on it.
+     *
+     * @return the least loaded available address of the same family other than the given one, or the given one if there
+     * is none, a new connection being used anyway.
+     */
+    UpstreamAddress selectOther(UpstreamAddress address) {
+        UpstreamAddress selected = address;
+        for (UpstreamAddress candidate : addresses) {
+            if (
+                candidate != address &&
+                candidate.ipv6 == address.ipv6 &&
+                !candidate.isEjected() &&
+                (selected == address || candidate.inFlight.get() < selected.inFlight.get())
+            ) {
+                selected = candidate;
+            }
+        }
+
+        selected.inFlight.incrementAndGet();
+        return selected;
+    }
+
+    /**
+     * @return <code>true</code> if the host resolves to both IPv4 and IPv6 addresses.
+     */
+    boolean isDualStack() {
+        return preferred.length < addresses.length;
+    }
+
+    private static boolean hasAvailable(UpstreamAddress[] candidates) {
+        for (UpstreamAddress candidate : candidates) {
+            if (!candidate.isEjected()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static UpstreamAddress firstAvailable(UpstreamAddress[] candidates) {
+        for (UpstreamAddress candidate : candidates) {
+            if (!candidate.isEjected()) {
+                return candidate;
+            }
+        }
+        return candidates[0];
+    }
+
+    private static UpstreamAddress leastLoaded(UpstreamAddress first, UpstreamAddress second) {
+        if (first.isEjected() != second.isEjected()) {
+            return first.isEjected() ? second : first;
+        }
+        return first.inFlight.get() <= second.inFlight.get() ? first : second;
+    }
+
+    private void refreshIfNeeded() {
+        if (resolved && System.nanoTime() - refreshAt < 0) {
+            return;
+        }
+
+        final Context context = Vertx.currentContext();
+        if (context != null && resolving.compareAndSet(false, true)) {
+            final Future<InetAddress[]> lookup = resolver != null
+                ? resolver.resolveAll(context, host)
+                : context.owner().executeBlocking(() -> InetAddress.getAllByName(host), false);
+            this.lookup = lookup;
+            lookup.onComplete(result -> {
+                if (result.succeeded()) {
+                    update(result.result());
+                    refreshAt = System.nanoTime() + refreshInterval;
+                } else {
+                    LOGGER.warn("Unable to resolve addresses of {}: {}", host, result.cause().getMessage());
+                    refreshAt = System.nanoTime() + Math.min(refreshInterval, TimeUnit.MILLISECONDS.toNanos(LOOKUP_RETRY_DELAY));
+                }
+                resolved = true;
+                resolving.set(false);
+            });
+        }
+    }
+
+    /**
+     * @return the addresses once the host name has been resolved, empty if it can't be resolved from the caller thread.
+     */
+    Future<UpstreamAddress[]> resolve() {
+        refreshIfNeeded();
+        final Future<?> lookup = this.lookup;
+        return lookup == null || resolved
+            ? Future.succeededFuture(addresses)
+            : lookup.transform(ignore -> Future.succeededFuture(addresses));
+    }
+
+    void update(InetAddress[] resolvedAddresses) {
+        final UpstreamAddress[] current = addresses;
+        final UpstreamAddress[] updated = new UpstreamAddress[resolvedAddresses.length];
+        int preferredCount = 0;
+
+        for (int i = 0; i < resolvedAddresses.length; i++) {
+            final String ip = resolvedAddresses[i].getHostAddress();
+            UpstreamAddress address = null;
+            for (UpstreamAddress candidate : current) {
+                if (candidate.ip.equals(ip)) {
+                    address = candidate;
+                    break;
+                }
+            }
+            updated[i] = address != null ? address : new UpstreamAddress(ip, port, resolvedAddresses[i] instanceof Inet6Address);
+            if (updated[i].ipv6 == updated[0].ipv6) {
+                preferredCount++;
+            }
+        }
+
+        // The resolver orders the addresses by preferred family
+        final UpstreamAddress[] updatedPreferred = new UpstreamAddress[preferredCount];
+        for (int i = 0, j = 0; i < updated.length; i++) {
+            if (updated[i].ipv6 == updated[0].ipv6) {
+                updatedPreferred[j++] = updated[i];
+            }
+        }
+
+        if (updated.length != current.length || !Arrays.asList(current).containsAll(Arrays.asList(updated))) {
+            LOGGER.debug("Addresses of {} are now {}", host, Arrays.toString(updated));
+        }
+        preferred = updatedPreferred;
+        addresses = updated;
+    }
+
+    UpstreamAddress[] addresses() {
+        return addresses;
+    }
+
+    /**
+     * Track a connection opened by a client to one of the addresses, until it is closed.
+     */
+    void connected(Channel channel) {
+        if (!(channel.remoteAddress() instanceof InetSocketAddress remote) || remote.getAddress() == null) {
+            return;
+        }
+        final String ip = remote.getAddress().getHostAddress();
+        for (UpstreamAddress address : addresses) {
+            if (address.ip.equals(ip) && address.socketAddress.port() == remote.getPort()) {
+                address.connections.incrementAndGet();
+                channel.closeFuture().addListener(future -> address.connections.decrementAndGet());
+                return;
+            }
+        }
+    }
+
+    /**
+     * A resolved address of the endpoint host.
+     */
+    static final class UpstreamAddress {
+
+        private final String ip;
+        private final boolean ipv6;
+        private final SocketAddress socketAddress;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile long ejectedUntil;
+
+        private UpstreamAddress(String ip, int port, boolean ipv6) {
+            this.ip = ip;
+            this.ipv6 = ipv6;
+            this.socketAddress = SocketAddress.inetSocketAddress(port, ip);
+        }
+
+        SocketAddress socketAddress() {
+            return socketAddress;
+        }
+
+        int inFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * @return the number of connections currently open to this address, by all the clients of the endpoint.
+         */
+        int connections() {
+            return connections.get();
+        }
+
+        boolean isEjected() {
+            return ejectedUntil != 0 && System.nanoTime() - ejectedUntil < 0;
+        }
+
+        /**
+         * The connection to this address failed, don't send requests to it for a while.
+         */
+        void eject() {
+            LOGGER.debug("Ejecting address {} for {}ms", ip, EJECTION_DURATION);
+            ejectedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(EJECTION_DURATION);
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            return ip;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.connector.http.endpoint.CircuitBreakerOptions;
+import io.micrometer.core.instrument.Tags;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker of an endpoint, failing calls right away while the endpoint is known to be down instead of waiting
+ * for the connect timeout of each of them.
+ *
+ * The outcome of the last calls is kept in a ring buffer: once it holds enough calls, the circuit opens as soon as the
+ * rate of failed calls or the rate of slow calls reaches its threshold. Calls are then rejected until the open
+ * duration has elapsed, then the circuit is half-open: a bounded number of probe calls are let through, and the
+ * circuit closes or opens again depending on their outcome.
+ *
+ * The circuit breaker is shared by all the event loops using the endpoint, the state is only read without locking.
+ * Its state, state transitions and rejected calls are exported as meters of the endpoint once bound to its
+ * {@link EndpointMeters}.
+ *
+ * @author GraviteeSource Team
+ */
+public final class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final String endpoint;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDuration;
+    private final int minimumCalls;
+    private final long openDuration;
+    private final int permittedProbes;
+
+    private final LongAdder rejected = new LongAdder();
+    private volatile State state = State.CLOSED;
+    private volatile int generation;
+
+    // Guarded by this
+    private final byte[] outcomes;
+    private int index;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int probes;
+    private final long[] transitions = new long[State.values().length];
+
+    public CircuitBreaker(String endpoint, CircuitBreakerOptions options) {
+        this.endpoint = endpoint;
+        this.failureRateThreshold = options.getFailureRateThreshold();
+        this.slowCallRateThreshold = options.getSlowCallRateThreshold();
+        this.slowCallDuration = TimeUnit.MILLISECONDS.toNanos(options.getSlowCallDuration());
+        this.outcomes = new byte[Math.max(1, options.getWindowSize())];
+        this.minimumCalls = Math.max(1, Math.min(options.getMinimumCalls(), outcomes.length));
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(options.getOpenDuration());
+        this.permittedProbes = Math.max(1, options.getPermittedProbes());
+    }
+
+    /**
+     * Try to get the permission to call the endpoint.
+     *
+     * @return the call, to be completed with its outcome, or <code>null</code> if the circuit is open.
+     */
+    public Call tryAcquire() {
+        if (state == State.CLOSED) {
+            return new Call(generation, false);
+        }
+
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openDuration) {
+                    rejected.increment();
+                    return null;
+                }
+                transition(State.HALF_OPEN);
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (probes >= permittedProbes) {
+                    rejected.increment();
+                    return null;
+                }
+                probes++;
+                return new Call(generation, true);
+            }
+
+            return new Call(generation, false);
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * @return the number of calls rejected while the circuit was open or half-open.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Export the state of the circuit as a gauge per state (1 for the current one, 0 for the others), along with the
+     * number of transitions to each state and the number of rejected calls.
+     */
+    public void bindTo(EndpointMeters meters) {
+        for (State candidate : State.values()) {
+            final Tags tags = Tags.of("state", candidate.name().toLowerCase(Locale.ROOT));
+            meters.gauge("circuit.state", tags, "Current state of the circuit breaker", this, cb -> cb.state == candidate ? 1 : 0);
+            meters.counter(
+                "circuit.transitions",
+                tags,
+                "Transitions of the circuit breaker to the state",
+                this,
+                cb -> cb.transitions(candidate)
+            );
+        }
+        meters.counter("circuit.rejected", "Calls rejected while the circuit was open or half-open", this, CircuitBreaker::rejected);
+    }
+
+    /**
+     * @return the number of times the circuit went to the given state.
+     */
+    public synchronized long transitions(State state) {
+        return transitions[state.ordinal()];
+    }
+
+    private synchronized void record(Call call, byte outcome) {
+        if (call.generation != generation) {
+            // The call started before the last state change, its outcome is not relevant anymore
+            return;
+        }
+
+        if (state == State.CLOSED) {
+            if (calls == outcomes.length) {
+                remove(outcomes[index]);
+            } else {
+                calls++;
+            }
+            outcomes[index] = outcome;
+            add(outcome);
+            index = (index + 1) % outcomes.length;
+
+            if (calls >= minimumCalls && isAboveThresholds()) {
+                transition(State.OPEN);
+            }
+        } else if (state == State.HALF_OPEN && call.probe) {
+            calls++;
+            add(outcome);
+
+            if (isAboveThresholds()) {
+                transition(State.OPEN);
+            } else if (calls == permittedProbes) {
+                transition(State.CLOSED);
+            }
+        }
+    }
+
+    private synchronized void abort(Call call) {
+        // A probe has been canceled without any outcome, let another one go
+        if (call.generation == generation && state == State.HALF_OPEN) {
+            probes--;
+        }
+    }
+
+    private boolean isAboveThresholds() {
+        final int size = state == State.HALF_OPEN ? permittedProbes : calls;
+        return (failures * 100 >= failureRateThreshold * size || slowCalls * 100 >= slowCallRateThreshold * size);
+    }
+
+    private void add(byte outcome) {
+        if (outcome == FAILURE) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+    }
+
+    private void remove(byte outcome) {
+        if (outcome == FAILURE) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    private void transition(State newState) {
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+            LOGGER.warn(
+                "Circuit breaker of endpoint[{}] is open after {} failed and {} slow calls out of {}",
+                endpoint,
+                failures,
+                slowCalls,
+                calls
+            );
+        } else {
+            LOGGER.info("Circuit breaker of endpoint[{}] is {}", endpoint, newState);
+        }
+
+        state = newState;
+        transitions[newState.ordinal()]++;
+        generation++;
+        index = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        probes = 0;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "CircuitBreaker{" +
+            "state=" +
+            state +
+            ", rejected=" +
+            rejected() +
+            ", opened=" +
+            transitions(State.OPEN) +
+            '}'
+        );
+    }
+
+    /**
+     * A call permitted by the circuit breaker, completed from the event loop it has been issued from.
+     */
+    public final class Call {
+
+        private final int generation;
+        private final boolean probe;
+        private final long startTime = System.nanoTime();
+        private boolean completed;
+
+        private Call(int generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+
+        /**
+         * The endpoint answered, the call is considered slow if it took longer than the slow call duration.
+         */
+        public void succeeded() {
+            if (!completed) {
+                completed = true;
+                record(this, System.nanoTime() - startTime >= slowCallDuration ? SLOW : SUCCESS);
+            }
+        }
+
+        /**
+         * The call failed because of the endpoint (connection error, timeout, overload).
+         */
+        public void failed() {
+            if (!completed) {
+                completed = true;
+                record(this, FAILURE);
+            }
+        }
+
+        /**
+         * The call is over, whatever its outcome.
+         */
+        public void release() {
+            if (!completed) {
+                completed = true;
+                if (probe) {
+                    abort(this);
+                }
+            }
+        }
+    }
+}
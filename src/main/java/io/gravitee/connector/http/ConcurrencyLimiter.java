@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive limit of the requests in flight toward an endpoint, following the gradient algorithm.
+ *
+ * The limit is continuously adjusted from the round trip time of the requests (time until the response headers are
+ * received): a long term average RTT is compared to the short term one, and the limit shrinks as soon as the backend
+ * latency grows, i.e. when requests start queueing upstream. When the latency is stable, the limit grows by the square
+ * root of the current limit, so that it can probe for more capacity. Failed requests (connection errors, timeouts,
+ * rejections) decrease the limit multiplicatively.
+ *
+ * Requests over the limit are not queued, {@link #tryAcquire()} gives no permit so that the caller can reject them
+ * right away: latency of the accepted requests stays bounded instead of collapsing under overload.
+ *
+ * The limiter is shared by all the event loops using the endpoint.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ConcurrencyLimiter {
+
+    private static final int MIN_LIMIT = 20;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LONG_RTT_FACTOR = 1.0 / 600;
+    private static final double SHORT_RTT_FACTOR = 1.0 / 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longRtt;
+    private double shortRtt;
+
+    /**
+     * @param initialLimit the limit to start with, before any RTT has been measured.
+     * @param maxLimit the maximum number of requests in flight, whatever the measured RTT.
+     */
+    public ConcurrencyLimiter(int initialLimit, int maxLimit) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("Max concurrency limit must be positive");
+        }
+        this.maxLimit = maxLimit;
+        this.minLimit = Math.min(MIN_LIMIT, maxLimit);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Try to get a permit to send a request upstream.
+     *
+     * @return the permit, to be released once the request is completed, or <code>null</code> if the limit is reached.
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return new Permit(System.nanoTime(), current + 1);
+    }
+
+    /**
+     * @return the current limit of requests in flight.
+     */
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of requests rejected because the limit was reached.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+        } else {
+            longRtt += (rttNanos - longRtt) * LONG_RTT_FACTOR;
+            shortRtt += (rttNanos - shortRtt) * SHORT_RTT_FACTOR;
+        }
+
+        // The long term RTT has drifted far above the short term one (i.e. after an overload), let it recover faster
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+
+        // Don't grow the limit while it is not actually used
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, (RTT_TOLERANCE * longRtt) / shortRtt));
+        final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    synchronized void onDropped() {
+        update(estimatedLimit * BACKOFF_RATIO);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" + "limit=" + limit + ", inFlight=" + inFlight() + ", rejected=" + rejected() + '}';
+    }
+
+    /**
+     * Permit of a single request, updated from the event loop the request has been issued from.
+     */
+    public final class Permit {
+
+        private final long startTime;
+        private final int inFlightAtStart;
+        private boolean sampled;
+        private boolean released;
+
+        private Permit(long startTime, int inFlightAtStart) {
+            this.startTime = startTime;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The backend answered: its response time is used to adjust the limit.
+         */
+        public void succeeded() {
+            if (!sampled && !released) {
+                sampled = true;
+                onSample(System.nanoTime() - startTime, inFlightAtStart);
+            }
+        }
+
+        /**
+         * The request failed because of the backend (connection error, timeout, overload).
+         */
+        public void dropped() {
+            if (!sampled && !released) {
+                sampled = true;
+                onDropped();
+            }
+        }
+
+        /**
+         * The request is completed, whatever its outcome. Requests canceled before any response are not sampled.
+         */
+        public void release() {
+            if (!released) {
+                released = true;
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.connector.http.vertx.VertxConnections;
+import io.netty.channel.Channel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool metrics of an endpoint, tagged with the endpoint name and target.
+ *
+ * Vert.x pool metrics can only be collected through its metrics SPI, which is installed by the node when creating the
+ * Vert.x instance and can't be plugged by a connector. The clients are given the endpoint name as metrics name, so that
+ * the node Vert.x metrics are tagged per endpoint when enabled, and this class tracks the connector side of the pool:
+ * <ul>
+ *     <li>pending requests, waiting for a connection from the pool, and the time spent waiting</li>
+ *     <li>active requests, which got a connection and are not completed yet</li>
+ *     <li>connections created and closed by the HTTP clients, hence the connections currently open and idle</li>
+ *     <li>requests rejected because the pool wait queue was full</li>
+ * </ul>
+ *
+ * Counters are updated from all the event loops using the endpoint, and exported as meters of the endpoint once bound
+ * to its {@link EndpointMeters}.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ConnectionPoolMetrics {
+
+    private final String endpoint;
+    private final String target;
+
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final LongAdder acquiredRequests = new LongAdder();
+    private final LongAdder waitTimeNanos = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public ConnectionPoolMetrics(String endpoint, String target) {
+        this.endpoint = endpoint;
+        this.target = target;
+    }
+
+    /**
+     * Track a request which is about to ask the pool for a connection.
+     */
+    public Request requestPending() {
+        pendingRequests.incrementAndGet();
+        return new Request(System.nanoTime());
+    }
+
+    /**
+     * Track a connection opened by a client, until it is closed. Connections whose channel can't be accessed are not
+     * tracked, see {@link VertxConnections}.
+     */
+    public void connectionCreated(io.vertx.core.http.HttpConnection connection) {
+        final Channel channel = VertxConnections.channel(connection);
+        if (channel != null) {
+            connectionCreated(channel);
+        }
+    }
+
+    /**
+     * The close of the connection is observed on its channel: the close handler of the connection is left to the
+     * application, setting it would replace the one set by any other component.
+     */
+    void connectionCreated(Channel channel) {
+        connectionsCreated.increment();
+        channel.closeFuture().addListener(future -> connectionsClosed.increment());
+    }
+
+    /**
+     * Export the pool counters as meters of the endpoint.
+     */
+    public void bindTo(EndpointMeters meters) {
+        meters.gauge("pool.pending", "Requests waiting for a connection from the pool", this, ConnectionPoolMetrics::pendingRequests);
+        meters.gauge("pool.active", "Requests holding a connection of the pool", this, ConnectionPoolMetrics::activeRequests);
+        meters.gauge("pool.connections.open", "Connections currently open", this, ConnectionPoolMetrics::openConnections);
+        meters.gauge("pool.connections.idle", "Connections open but not used by any request", this, ConnectionPoolMetrics::idleConnections);
+        meters.counter("pool.connections.created", "Connections created", this, ConnectionPoolMetrics::connectionsCreated);
+        meters.counter("pool.connections.closed", "Connections closed", this, ConnectionPoolMetrics::connectionsClosed);
+        meters.counter("pool.rejected", "Requests rejected because the wait queue was full", this, ConnectionPoolMetrics::rejectedRequests);
+        meters.timer(
+            "pool.wait",
+            "Time spent waiting for a connection from the pool",
+            this,
+            metrics -> metrics.acquiredRequests.sum(),
+            metrics -> metrics.waitTimeNanos.sum()
+        );
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public String target() {
+        return target;
+    }
+
+    public int pendingRequests() {
+        return pendingRequests.get();
+    }
+
+    public int activeRequests() {
+        return activeRequests.get();
+    }
+
+    public long connectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    public long connectionsClosed() {
+        return connectionsClosed.sum();
+    }
+
+    public long rejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    public long openConnections() {
+        return connectionsCreated.sum() - connectionsClosed.sum();
+    }
+
+    /**
+     * Connections are idle when no request holds them. This is exact for HTTP/1.1 without pipelining, where a request
+     * holds its connection exclusively, and a lower bound when requests are multiplexed on a connection (HTTP/2).
+     */
+    public long idleConnections() {
+        return Math.max(0, openConnections() - activeRequests.get());
+    }
+
+    /**
+     * @return the average time, in milliseconds, requests waited for a connection from the pool.
+     */
+    public double averageWaitTime() {
+        final long acquired = acquiredRequests.sum();
+        return acquired == 0 ? 0 : (double) waitTimeNanos.sum() / acquired / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "ConnectionPoolMetrics{" +
+            "endpoint='" +
+            endpoint +
+            '\'' +
+            ", target='" +
+            target +
+            '\'' +
+            ", pendingRequests=" +
+            pendingRequests() +
+            ", activeRequests=" +
+            activeRequests() +
+            ", openConnections=" +
+            openConnections() +
+            ", idleConnections=" +
+            idleConnections() +
+            ", connectionsCreated=" +
+            connectionsCreated() +
+            ", rejectedRequests=" +
+            rejectedRequests() +
+            ", averageWaitTime=" +
+            averageWaitTime() +
+            "ms}"
+        );
+    }
+
+    /**
+     * Lifecycle of a single request regarding the pool: pending, then active once it got a connection, then ended.
+     * A request is updated from the event loop it has been issued from.
+     */
+    public final class Request {
+
+        private static final int PENDING = 0;
+        private static final int ACTIVE = 1;
+        private static final int ENDED = 2;
+
+        private final long pendingSince;
+        private int state = PENDING;
+        private boolean rejected;
+
+        private Request(long pendingSince) {
+            this.pendingSince = pendingSince;
+        }
+
+        /**
+         * The request got a connection, or failed to get one.
+         */
+        public void acquired() {
+            if (state == PENDING) {
+                state = ACTIVE;
+                pendingRequests.decrementAndGet();
+                activeRequests.incrementAndGet();
+                acquiredRequests.increment();
+                waitTimeNanos.add(System.nanoTime() - pendingSince);
+            }
+        }
+
+        /**
+         * The request has been rejected by the pool, its wait queue being full.
+         */
+        public void rejected() {
+            if (!rejected) {
+                rejected = true;
+                rejectedRequests.increment();
+            }
+        }
+
+        /**
+         * @return <code>true</code> if the request never reached the endpoint, the pool having rejected it locally.
+         */
+        public boolean isRejected() {
+            return rejected;
+        }
+
+        /**
+         * The request is completed, whatever its outcome.
+         */
+        public void ended() {
+            if (state == PENDING) {
+                pendingRequests.decrementAndGet();
+            } else if (state == ACTIVE) {
+                activeRequests.decrementAndGet();
+            }
+            state = ENDED;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens pooled connections to the endpoint target before the first requests need them, so that they don't pay for DNS
+ * resolution, TCP and TLS handshakes.
+ *
+ * Vert.x only opens pooled connections to send requests. To reach no resource of the application, connections are
+ * opened with <code>OPTIONS *</code> requests, which apply to the server as a whole (RFC 9110, section 9.3.7), carrying
+ * the endpoint headers as any other request: any response, whatever its status, means that a connection has been
+ * established and released to the pool.
+ *
+ * Vert.x keeps a pool per server address: when requests are spread across the resolved addresses of the endpoint,
+ * each address pool is warmed up. HTTP/2 requests are multiplexed on a single connection until it reaches its
+ * concurrency limit, so a single connection is opened per HTTP/2 pool. The number of connections reported is the number
+ * of distinct connections the requests have been sent on.
+ *
+ * Warm-up is asynchronous and its outcome is only logged, a backend being down never fails the connector.
+ *
+ * @author GraviteeSource Team
+ */
+final class ConnectionWarmUp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionWarmUp.class);
+
+    private static final String SERVER_WIDE_URI = "*";
+
+    private ConnectionWarmUp() {}
+
+    /**
+     * @param client the client whose pools must be warmed up.
+     * @param endpoint the name of the endpoint, for logging purpose.
+     * @param target the endpoint target.
+     * @param servers the addresses requests are sent to, one pool each, or an empty list for the pool of the host name.
+     * @param headers the endpoint headers.
+     * @param connections the number of connections to open per pool.
+     * @param multiplexed <code>true</code> for HTTP/2 pools, where a single connection is opened.
+     * @param timeout the timeout of each warm-up request, in milliseconds.
+     * @return a future completed with the number of connections opened, never failed.
+     */
+    static Future<Integer> warmUp(
+        HttpClient client,
+        String endpoint,
+        HttpTarget target,
+        List<SocketAddress> servers,
+        MultiMap headers,
+        int connections,
+        boolean multiplexed,
+        long timeout
+    ) {
+        final long start = System.currentTimeMillis();
+        final int perPool = multiplexed ? 1 : connections;
+        final List<SocketAddress> pools = servers.isEmpty() ? Collections.singletonList(null) : servers;
+
+        final List<Future<HttpConnection>> requests = new ArrayList<>(pools.size() * perPool);
+        for (SocketAddress server : pools) {
+            final RequestOptions options = new RequestOptions()
+                .setMethod(HttpMethod.OPTIONS)
+                .setHost(target.host())
+                .setPort(target.port())
+                .setServer(server)
+                .setSsl(target.secure())
+                .setURI(SERVER_WIDE_URI)
+                .setHeaders(headers)
+                .setTimeout(timeout);
+            for (int i = 0; i < perPool; i++) {
+                requests.add(
+                    client
+                        .request(options)
+                        .compose(request -> request.send().compose(response -> response.end()).map(v -> request.connection()))
+                );
+            }
+        }
+
+        return Future.join(requests).transform(ignore -> {
+            final Set<HttpConnection> opened = Collections.newSetFromMap(new IdentityHashMap<>());
+            Throwable failure = null;
+            for (Future<HttpConnection> request : requests) {
+                if (request.succeeded()) {
+                    opened.add(request.result());
+                } else {
+                    failure = request.cause();
+                }
+            }
+
+            if (failure == null) {
+                LOGGER.debug(
+                    "Warm-up of endpoint[{}] opened {} connections to {} in {}ms",
+                    endpoint,
+                    opened.size(),
+                    target,
+                    System.currentTimeMillis() - start
+                );
+            } else {
+                LOGGER.warn(
+                    "Warm-up of endpoint[{}] opened {} connections to {} in {}ms, last failure: {}",
+                    endpoint,
+                    opened.size(),
+                    target,
+                    System.currentTimeMillis() - start,
+                    failure.getMessage()
+                );
+            }
+            return Future.succeededFuture(opened.size());
+        });
+    }
+}
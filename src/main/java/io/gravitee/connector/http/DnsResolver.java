@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.connector.http.endpoint.DnsResolverOptions;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.resolver.ResolvedAddressTypes;
+import io.netty.resolver.dns.DefaultDnsCache;
+import io.netty.resolver.dns.DnsCache;
+import io.netty.resolver.dns.DnsCacheEntry;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DNS resolver of an endpoint, configured from its own settings instead of the ones of the Vert.x instance.
+ *
+ * In Kubernetes, <code>ndots:5</code> and the search domains of <code>/etc/resolv.conf</code> make each resolution of
+ * an external host name go through several failed queries: lowering ndots, setting the search domains and caching
+ * negative answers per endpoint removes most of these queries.
+ *
+ * The resolver serves the lookups of the {@link AddressBalancer}: once the first lookup is completed, requests are sent
+ * to the resolved addresses while they are refreshed in the background. The underlying Netty resolver is created on the
+ * event loop of the first lookup and shared by all the event loops using the endpoint. Lookup latency, failures and
+ * cache hits are tracked, and exported as meters of the endpoint once bound to its {@link EndpointMeters}.
+ *
+ * @author GraviteeSource Team
+ */
+final class DnsResolver {
+
+    private final DnsResolverOptions options;
+    private final CountingDnsCache cache;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lookupTime = new LongAdder();
+
+    // Guarded by this
+    private DnsNameResolver resolver;
+
+    DnsResolver(DnsResolverOptions options) {
+        this.options = options;
+        final int minTtl = Math.max(0, options.getMinTtl());
+        this.cache = new CountingDnsCache(
+            new DefaultDnsCache(minTtl, Math.max(minTtl, options.getMaxTtl()), Math.max(0, options.getNegativeTtl()))
+        );
+    }
+
+    /**
+     * Resolve all the addresses of a host name, the result being dispatched on the given context.
+     */
+    Future<InetAddress[]> resolveAll(Context context, String host) {
+        final ContextInternal contextInternal = (ContextInternal) context;
+        final Promise<InetAddress[]> promise = contextInternal.promise();
+        final long start = System.nanoTime();
+
+        resolver(contextInternal)
+            .resolveAll(host)
+            .addListener(future -> {
+                onLookup(System.nanoTime() - start, future.isSuccess());
+                if (future.isSuccess()) {
+                    @SuppressWarnings("unchecked")
+                    final List<InetAddress> addresses = (List<InetAddress>) future.getNow();
+                    promise.complete(addresses.toArray(new InetAddress[0]));
+                } else {
+                    promise.fail(future.cause());
+                }
+            });
+
+        return promise.future();
+    }
+
+    private synchronized DnsNameResolver resolver(ContextInternal context) {
+        if (resolver == null) {
+            final VertxInternal vertx = context.owner();
+            final DnsNameResolverBuilder builder = new DnsNameResolverBuilder(context.nettyEventLoop())
+                .datagramChannelFactory(() -> vertx.transport().datagramChannel())
+                .resolveCache(cache)
+                .queryTimeoutMillis(options.getQueryTimeout())
+                .resolvedAddressTypes(ResolvedAddressTypes.valueOf(options.getAddressFamily().name()));
+            if (options.getNdots() >= 0) {
+                builder.ndots(options.getNdots());
+            }
+            if (options.getSearchDomains() != null) {
+                builder.searchDomains(options.getSearchDomains());
+            }
+            resolver = builder.build();
+        }
+        return resolver;
+    }
+
+    void onLookup(long nanos, boolean succeeded) {
+        lookups.increment();
+        lookupTime.add(nanos);
+        if (!succeeded) {
+            failures.increment();
+        }
+    }
+
+    DnsCache cache() {
+        return cache;
+    }
+
+    /**
+     * Export the lookup and cache counters as meters of the endpoint.
+     */
+    void bindTo(EndpointMeters meters) {
+        meters.timer(
+            "dns.lookups",
+            "Host name resolutions of the endpoint resolver",
+            this,
+            DnsResolver::lookups,
+            resolver -> resolver.lookupTime.sum()
+        );
+        meters.counter("dns.lookup.failures", "Host name resolutions which failed", this, DnsResolver::failures);
+        meters.counter("dns.cache.hits", "Resolutions answered from the cache", this, DnsResolver::cacheHits);
+        meters.counter("dns.cache.misses", "Resolutions not answered from the cache", this, DnsResolver::cacheMisses);
+        meters.gauge("dns.cache.hit.rate", "Ratio of the resolutions answered from the cache", this, DnsResolver::cacheHitRate);
+    }
+
+    /**
+     * @return the number of host name resolutions, answered from the cache or not.
+     */
+    long lookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return the number of host name resolutions which failed, including query timeouts.
+     */
+    long failures() {
+        return failures.sum();
+    }
+
+    long cacheHits() {
+        return cache.hits.sum();
+    }
+
+    long cacheMisses() {
+        return cache.misses.sum();
+    }
+
+    /**
+     * @return the ratio of the cache lookups answered from the cache, positive and negative entries included.
+     */
+    double cacheHitRate() {
+        final long hits = cacheHits();
+        final long total = hits + cacheMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return the average time of a host name resolution, in milliseconds.
+     */
+    double averageLookupTime() {
+        final long count = lookups();
+        return count == 0 ? 0 : (double) lookupTime.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    synchronized void close() {
+        if (resolver != null) {
+            resolver.close();
+            resolver = null;
+        }
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "DnsResolver{" +
+            "lookups=" +
+            lookups() +
+            ", failures=" +
+            failures() +
+            ", cacheHitRate=" +
+            String.format("%.2f", cacheHitRate()) +
+            ", averageLookupTime=" +
+            String.format("%.2f", averageLookupTime()) +
+            "ms" +
+            '}'
+        );
+    }
+
+    /**
+     * Cache of the resolved addresses, counting the lookups it answers.
+     */
+    private static final class CountingDnsCache implements DnsCache {
+
+        private final DnsCache delegate;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private CountingDnsCache(DnsCache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+
+        @Override
+        public boolean clear(String hostname) {
+            return delegate.clear(hostname);
+        }
+
+        @Override
+        public List<? extends DnsCacheEntry> get(String hostname, DnsRecord[] additionals) {
+            final List<? extends DnsCacheEntry> entries = delegate.get(hostname, additionals);
+            if (entries == null || entries.isEmpty()) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return entries;
+        }
+
+        @Override
+        public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, InetAddress address, long originalTtl, EventLoop loop) {
+            return delegate.cache(hostname, additionals, address, originalTtl, loop);
+        }
+
+        @Override
+        public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+            return delegate.cache(hostname, additionals, cause, loop);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.common.http.HttpHeader;
+import io.gravitee.gateway.api.http.HttpHeaders;
+import io.netty.util.AsciiString;
+import io.vertx.core.MultiMap;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headers configured on the endpoint, compiled once when the connector starts.
+ *
+ * Names and values are converted to {@link AsciiString} with their hash already computed, so that the Vert.x headers
+ * don't need to hash them again on each request. Headers configured several times with the same name are resolved at
+ * compile time, the last value winning as it did when headers were set one after the other.
+ *
+ * @author GraviteeSource Team
+ */
+final class EndpointHeaders {
+
+    static final EndpointHeaders EMPTY = new EndpointHeaders(new AsciiString[0], new AsciiString[0]);
+
+    private final AsciiString[] names;
+    private final AsciiString[] values;
+
+    private EndpointHeaders(AsciiString[] names, AsciiString[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    static EndpointHeaders compile(List<HttpHeader> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Walk backward to only keep the last occurrence of each name, at the position it had been set last
+        final List<AsciiString> names = new ArrayList<>(headers.size());
+        final List<AsciiString> values = new ArrayList<>(headers.size());
+        for (int i = headers.size() - 1; i >= 0; i--) {
+            final HttpHeader header = headers.get(i);
+            if (header == null || header.getName() == null || contains(names, header.getName())) {
+                continue;
+            }
+            names.add(0, hashed(AsciiString.of(header.getName())));
+            values.add(0, header.getValue() == null ? null : hashed(AsciiString.of(header.getValue())));
+        }
+
+        return new EndpointHeaders(names.toArray(new AsciiString[0]), values.toArray(new AsciiString[0]));
+    }
+
+    boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    boolean contains(CharSequence name) {
+        for (AsciiString headerName : names) {
+            if (headerName.contentEqualsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set all the endpoint headers on the request headers, overriding the values sent by the client.
+     */
+    void applyTo(HttpHeaders headers) {
+        for (int i = 0; i < names.length; i++) {
+            headers.set(names[i], values[i]);
+        }
+    }
+
+    /**
+     * Set all the endpoint headers on Vert.x headers, i.e. the ones of a request sent by the connector itself.
+     */
+    void applyTo(MultiMap headers) {
+        for (int i = 0; i < names.length; i++) {
+            if (values[i] != null) {
+                headers.set(names[i], values[i]);
+            }
+        }
+    }
+
+    private static boolean contains(List<AsciiString> names, String name) {
+        for (AsciiString headerName : names) {
+            if (headerName.contentEqualsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AsciiString hashed(AsciiString value) {
+        // AsciiString computes its hash lazily then caches it
+        value.hashCode();
+        return value;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.micrometer.backends.BackendRegistries;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Meters of an endpoint, registered in the Micrometer registry of the node and tagged with the endpoint name, its target
+ * and the connector instance.
+ *
+ * Meters read the counters the connector already maintains (pool, circuit breaker, TLS handshakes...), so that nothing
+ * is recorded twice on the request path. When the node metrics are disabled there is no registry and the meters are not
+ * registered at all. They are removed from the registry when the connector is stopped, so that a redeployed endpoint
+ * doesn't keep reporting the values of its previous instance.
+ *
+ * Endpoint names (e.g. <code>default</code>) are only unique within an API: the instance tag, unique per connector,
+ * keeps the meters of two connectors apart, otherwise the registry would hand back the meter of the first one to the
+ * second one, and closing one of them would remove meters the other one still reports.
+ *
+ * @author GraviteeSource Team
+ */
+public final class EndpointMeters {
+
+    public static final String PREFIX = "gravitee.connector.http.";
+    public static final String ENDPOINT_TAG = "endpoint";
+    public static final String TARGET_TAG = "target";
+    public static final String INSTANCE_TAG = "instance";
+
+    private static final AtomicLong INSTANCES = new AtomicLong();
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+
+    // Guarded by this
+    private final List<Meter> meters = new ArrayList<>();
+
+    EndpointMeters(MeterRegistry registry, String endpoint, String target) {
+        this.registry = registry;
+        this.tags = Tags.of(
+            ENDPOINT_TAG,
+            endpoint != null ? endpoint : "",
+            TARGET_TAG,
+            target != null ? target : "",
+            INSTANCE_TAG,
+            Long.toString(INSTANCES.incrementAndGet())
+        );
+    }
+
+    /**
+     * @return new meters for an endpoint connector, bound to the default registry of the node metrics if they are enabled.
+     */
+    public static EndpointMeters of(String endpoint, String target) {
+        return new EndpointMeters(BackendRegistries.getDefaultNow(), endpoint, target);
+    }
+
+    /**
+     * @return the tags identifying the meters of this connector.
+     */
+    public Tags tags() {
+        return tags;
+    }
+
+    public boolean isEnabled() {
+        return registry != null;
+    }
+
+    public <T> void gauge(String name, String description, T source, ToDoubleFunction<T> value) {
+        gauge(name, Tags.empty(), description, source, value);
+    }
+
+    public <T> void gauge(String name, Tags extraTags, String description, T source, ToDoubleFunction<T> value) {
+        if (registry != null) {
+            add(Gauge.builder(PREFIX + name, source, value).tags(tags).tags(extraTags).description(description).register(registry));
+        }
+    }
+
+    public <T> void counter(String name, String description, T source, ToDoubleFunction<T> count) {
+        counter(name, Tags.empty(), description, source, count);
+    }
+
+    public <T> void counter(String name, Tags extraTags, String description, T source, ToDoubleFunction<T> count) {
+        if (registry != null) {
+            add(
+                FunctionCounter.builder(PREFIX + name, source, count).tags(tags).tags(extraTags).description(description).register(registry)
+            );
+        }
+    }
+
+    /**
+     * Register a timer reporting the count and the total time, in nanoseconds, of the events recorded by the source.
+     */
+    public <T> void timer(String name, String description, T source, ToLongFunction<T> count, ToDoubleFunction<T> totalTimeNanos) {
+        if (registry != null) {
+            add(
+                FunctionTimer.builder(PREFIX + name, source, count, totalTimeNanos, TimeUnit.NANOSECONDS)
+                    .tags(tags)
+                    .description(description)
+                    .register(registry)
+            );
+        }
+    }
+
+    /**
+     * Remove all the meters of the endpoint from the registry.
+     */
+    public synchronized void close() {
+        for (Meter meter : meters) {
+            registry.remove(meter);
+        }
+        meters.clear();
+    }
+
+    private synchronized void add(Meter meter) {
+        meters.add(meter);
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointMeters{" + "tags=" + tags + ", enabled=" + isEnabled() + '}';
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.netty.channel.EventLoop;
+import io.vertx.core.Closeable;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the clients used by a connector, one per Vert.x event loop.
+ *
+ * Looking up the client of the current event loop is a scan of a small copy-on-write array comparing event loops by
+ * identity: there is no lock, no hashing and no entry per thread. A client is registered the first time an event loop
+ * needs one, and evicted when the context it was created from is closed (Vert.x closes the clients created from a
+ * verticle context when the verticle is undeployed), so that a new one is created on next use.
+ *
+ * Calls from a worker or virtual thread context share a single client, as well as calls made outside of any Vert.x
+ * context once a Vert.x instance has been seen. Without any Vert.x instance to create a client from, an
+ * {@link IllegalStateException} is thrown.
+ *
+ * When {@link #shareAcrossEventLoops(boolean) shared across event loops}, all the calls use the shared client: its
+ * connection pool limits then apply to the whole instance, while new connections are still created on the event loop
+ * of the calling context.
+ *
+ * An {@link #onEventLoopClient(Consumer) handler} can be notified of each client created to serve event loops, e.g. to
+ * warm its connection pool up.
+ *
+ * @author GraviteeSource Team
+ */
+public final class EventLoopClients<C> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopClients.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final Slot[] NO_SLOT = new Slot[0];
+
+    private final Function<Vertx, C> factory;
+    private final Consumer<C> closer;
+
+    private volatile Slot<C>[] slots = emptySlots();
+
+    private volatile Slot<C> shared;
+    private volatile Consumer<C> eventLoopClientHandler;
+    private volatile Vertx vertx;
+    private volatile boolean shareAcrossEventLoops;
+
+    EventLoopClients(Function<Vertx, C> factory, Consumer<C> closer) {
+        this.factory = factory;
+        this.closer = closer;
+    }
+
+    /**
+     * @return the client bound to the event loop of the current context, or the shared client when not called from an
+     * event loop.
+     */
+    public C get() {
+        final ContextInternal context = (ContextInternal) Vertx.currentContext();
+        if (!shareAcrossEventLoops && context != null && context.isEventLoopContext()) {
+            final EventLoop eventLoop = context.nettyEventLoop();
+            final Slot<C>[] slots = this.slots;
+            for (Slot<C> slot : slots) {
+                if (slot.eventLoop == eventLoop) {
+                    return slot.client;
+                }
+            }
+            return register(context, eventLoop);
+        }
+        return shared(context);
+    }
+
+    /**
+     * Use a single client for all the calls, whatever the event loop they are made from.
+     */
+    void shareAcrossEventLoops(boolean shareAcrossEventLoops) {
+        this.shareAcrossEventLoops = shareAcrossEventLoops;
+    }
+
+    /**
+     * Notify the given handler of each client created to serve event loops: the client of each event loop or, when
+     * {@link #shareAcrossEventLoops(boolean) shared across event loops}, the shared client. The client shared by the
+     * calls made from worker threads or outside of Vert.x while event loops have their own is not notified.
+     */
+    void onEventLoopClient(Consumer<C> handler) {
+        this.eventLoopClientHandler = handler;
+    }
+
+    /**
+     * Use the given client for all the calls which are not made from an event loop.
+     */
+    void setShared(C client) {
+        this.shared = new Slot<>(null, client, null);
+    }
+
+    /**
+     * Close all the registered clients. The registry can still be used afterwards, new clients being created on demand.
+     */
+    public void close() {
+        final Slot<C>[] slots;
+        final Slot<C> shared;
+        synchronized (this) {
+            slots = this.slots;
+            shared = this.shared;
+            this.slots = emptySlots();
+            this.shared = null;
+        }
+
+        for (Slot<C> slot : slots) {
+            close(slot);
+        }
+        if (shared != null) {
+            close(shared);
+        }
+    }
+
+    /**
+     * Apply the given action to all the clients currently registered, the shared one included. No client is registered
+     * meanwhile: a client being created concurrently is either registered before and applied the action, or created
+     * once the action has been applied, from the state published before this call.
+     */
+    synchronized void forEach(Consumer<C> action) {
+        final Slot<C>[] slots = this.slots;
+        final Slot<C> shared = this.shared;
+        for (Slot<C> slot : slots) {
+            action.accept(slot.client);
+        }
+        if (shared != null) {
+            action.accept(shared.client);
+        }
+    }
+
+    /**
+     * @return the Vert.x instance the last client has been created from, <code>null</code> if none has been created yet.
+     */
+    Vertx vertx() {
+        return vertx;
+    }
+
+    /**
+     * @return the number of clients currently registered, the shared one included.
+     */
+    public int size() {
+        return slots.length + (shared != null ? 1 : 0);
+    }
+
+    private synchronized C register(ContextInternal context, EventLoop eventLoop) {
+        final Slot<C>[] slots = this.slots;
+        for (Slot<C> slot : slots) {
+            if (slot.eventLoop == eventLoop) {
+                return slot.client;
+            }
+        }
+
+        this.vertx = context.owner();
+        final Slot<C> slot = new Slot<>(eventLoop, factory.apply(context.owner()), context.unwrap());
+        slot.bind(this);
+
+        final Slot<C>[] newSlots = Arrays.copyOf(slots, slots.length + 1);
+        newSlots[slots.length] = slot;
+        this.slots = newSlots;
+        created(slot.client);
+        return slot.client;
+    }
+
+    private C shared(ContextInternal context) {
+        final Slot<C> shared = this.shared;
+        if (shared != null) {
+            return shared.client;
+        }
+
+        synchronized (this) {
+            if (this.shared == null) {
+                if (context != null) {
+                    this.vertx = context.owner();
+                } else if (vertx == null) {
+                    throw new IllegalStateException("No Vert.x instance available to create a client, call it from a Vert.x context");
+                }
+
+                final Slot<C> slot = new Slot<>(null, factory.apply(vertx), context != null ? context.unwrap() : null);
+                slot.bind(this);
+                this.shared = slot;
+                if (shareAcrossEventLoops) {
+                    created(slot.client);
+                }
+            }
+            return this.shared.client;
+        }
+    }
+
+    private synchronized void evict(Slot<C> evicted) {
+        if (shared == evicted) {
+            shared = null;
+            return;
+        }
+
+        final Slot<C>[] slots = this.slots;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == evicted) {
+                final Slot<C>[] newSlots = Arrays.copyOf(slots, slots.length - 1);
+                System.arraycopy(slots, i + 1, newSlots, i, slots.length - i - 1);
+                this.slots = newSlots;
+                return;
+            }
+        }
+    }
+
+    private void created(C client) {
+        final Consumer<C> handler = eventLoopClientHandler;
+        if (handler != null) {
+            try {
+                handler.accept(client);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to handle the creation of client {}", client, e);
+            }
+        }
+    }
+
+    private void close(Slot<C> slot) {
+        slot.unbind();
+        try {
+            closer.accept(slot.client);
+        } catch (IllegalStateException ise) {
+            LOGGER.warn(ise.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> Slot<C>[] emptySlots() {
+        return NO_SLOT;
+    }
+
+    private static final class Slot<C> {
+
+        private final EventLoop eventLoop;
+        private final C client;
+        private final ContextInternal context;
+        private Closeable closeHook;
+
+        private Slot(EventLoop eventLoop, C client, ContextInternal context) {
+            this.eventLoop = eventLoop;
+            this.client = client;
+            this.context = context;
+        }
+
+        /**
+         * Evict the client from the registry when the context it has been created from is closed.
+         */
+        private void bind(EventLoopClients<C> registry) {
+            if (context != null) {
+                closeHook = (Promise<Void> completion) -> {
+                    registry.evict(this);
+                    completion.complete();
+                };
+                context.addCloseHook(closeHook);
+            }
+        }
+
+        private void unbind() {
+            if (closeHook != null) {
+                context.removeCloseHook(closeHook);
+            }
+        }
+    }
+}
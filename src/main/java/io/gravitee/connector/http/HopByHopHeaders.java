@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.common.http.HttpHeader;
+import io.gravitee.gateway.api.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.util.AsciiString;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strips the hop-by-hop headers of a request before sending it upstream.
+ *
+ * Request headers are walked once, their names being looked up in a table indexed by name length and compared ignoring
+ * case, so that only the headers actually present are removed.
+ *
+ * When enabled on the endpoint, the headers named in the <code>Connection</code> header are stripped as well, as required
+ * by RFC 9110 (section 7.6.1), except the ones which must be kept (<code>Host</code>, the WebSocket handshake headers),
+ * the ones configured on the endpoint and the ones set by the gateway (forwarding, tracing, <code>X-Gravitee-*</code>
+ * headers). Headers are stripped once policies have run, so any other header set by a policy (<code>Authorization</code>,
+ * transformed headers...) could be removed by a client naming it in its <code>Connection</code> header: this is why
+ * it is disabled by default.
+ *
+ * @author GraviteeSource Team
+ */
+public final class HopByHopHeaders {
+
+    /**
+     * Headers set by the gateway or its policies, never removed when listed in <code>Connection</code>.
+     */
+    private static final AsciiString[] GATEWAY_HEADERS = {
+        AsciiString.cached("X-Forwarded-For"),
+        AsciiString.cached("X-Forwarded-Host"),
+        AsciiString.cached("X-Forwarded-Port"),
+        AsciiString.cached("X-Forwarded-Prefix"),
+        AsciiString.cached("X-Forwarded-Proto"),
+        AsciiString.cached("Forwarded"),
+        AsciiString.cached("X-Real-IP"),
+        AsciiString.cached("traceparent"),
+        AsciiString.cached("tracestate"),
+        HttpHeaderNames.CONTENT_LENGTH,
+        HttpHeaderNames.CONTENT_TYPE,
+        HttpHeaderNames.TRANSFER_ENCODING,
+    };
+
+    private static final String GATEWAY_HEADERS_PREFIX = "X-Gravitee-";
+
+    public static final HopByHopHeaders HTTP = new HopByHopHeaders(
+        new AsciiString[] {
+            HttpHeaderNames.CONNECTION,
+            HttpHeaderNames.KEEP_ALIVE,
+            HttpHeaderNames.PROXY_AUTHORIZATION,
+            HttpHeaderNames.PROXY_AUTHENTICATE,
+            HttpHeaderNames.PROXY_CONNECTION,
+            HttpHeaderNames.TE,
+            HttpHeaderNames.TRAILER,
+            HttpHeaderNames.UPGRADE,
+        },
+        gatewayHeaders(HttpHeaderNames.HOST)
+    );
+
+    /**
+     * <code>Connection</code> and <code>Upgrade</code> are part of the WebSocket handshake and must be kept.
+     */
+    public static final HopByHopHeaders WEBSOCKET = new HopByHopHeaders(
+        new AsciiString[] {
+            HttpHeaderNames.KEEP_ALIVE,
+            HttpHeaderNames.PROXY_AUTHORIZATION,
+            HttpHeaderNames.PROXY_AUTHENTICATE,
+            HttpHeaderNames.PROXY_CONNECTION,
+            HttpHeaderNames.TE,
+            HttpHeaderNames.TRAILER,
+        },
+        gatewayHeaders(HttpHeaderNames.HOST, HttpHeaderNames.CONNECTION, HttpHeaderNames.UPGRADE)
+    );
+
+    private final AsciiString[][] hopHeaders;
+    private final AsciiString[][] keptHeaders;
+
+    private HopByHopHeaders(AsciiString[] hopHeaders, AsciiString[] keptHeaders) {
+        this.hopHeaders = indexByLength(hopHeaders);
+        this.keptHeaders = indexByLength(keptHeaders);
+    }
+
+    /**
+     * Remove the hop-by-hop headers.
+     *
+     * @param headers the request headers.
+     * @param endpointHeaders the headers configured on the endpoint, never removed even if listed in <code>Connection</code>.
+     * @param connectionTokens <code>true</code> to also remove the headers listed in the <code>Connection</code> header.
+     */
+    public void strip(HttpHeaders headers, List<HttpHeader> endpointHeaders, boolean connectionTokens) {
+        String[] toRemove = null;
+        int count = 0;
+
+        final Iterator<Map.Entry<String, String>> entries = headers.iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<String, String> entry = entries.next();
+            final String name = entry.getKey();
+
+            if (connectionTokens && HttpHeaderNames.CONNECTION.contentEqualsIgnoreCase(name)) {
+                // Each token of the Connection header names another hop-by-hop header
+                final String value = entry.getValue();
+                int start = 0;
+                while (value != null && start < value.length()) {
+                    int end = value.indexOf(',', start);
+                    if (end == -1) {
+                        end = value.length();
+                    }
+                    final String token = value.substring(start, end).trim();
+                    // Tokens naming a hop-by-hop header are already handled when their own entry is visited
+                    if (
+                        !token.isEmpty() &&
+                        !lookup(hopHeaders, token) &&
+                        !lookup(keptHeaders, token) &&
+                        !isGatewayHeader(token) &&
+                        !isEndpointHeader(endpointHeaders, token)
+                    ) {
+                        toRemove = append(toRemove, count++, token);
+                    }
+                    start = end + 1;
+                }
+            }
+
+            if (lookup(hopHeaders, name)) {
+                toRemove = append(toRemove, count++, name);
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            headers.remove(toRemove[i]);
+        }
+    }
+
+    private static boolean lookup(AsciiString[][] table, CharSequence name) {
+        if (name.length() >= table.length) {
+            return false;
+        }
+        final AsciiString[] candidates = table[name.length()];
+        if (candidates != null) {
+            for (AsciiString candidate : candidates) {
+                if (candidate.contentEqualsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGatewayHeader(String name) {
+        return name.regionMatches(true, 0, GATEWAY_HEADERS_PREFIX, 0, GATEWAY_HEADERS_PREFIX.length());
+    }
+
+    private static AsciiString[] gatewayHeaders(AsciiString... keptHeaders) {
+        final AsciiString[] headers = Arrays.copyOf(keptHeaders, keptHeaders.length + GATEWAY_HEADERS.length);
+        System.arraycopy(GATEWAY_HEADERS, 0, headers, keptHeaders.length, GATEWAY_HEADERS.length);
+        return headers;
+    }
+
+    private static boolean isEndpointHeader(List<HttpHeader> endpointHeaders, String name) {
+        if (endpointHeaders != null) {
+            for (HttpHeader header : endpointHeaders) {
+                if (header != null && name.equalsIgnoreCase(header.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String[] append(String[] names, int count, String name) {
+        if (names == null) {
+            names = new String[4];
+        } else if (count == names.length) {
+            names = Arrays.copyOf(names, count << 1);
+        }
+        names[count] = name;
+        return names;
+    }
+
+    private static AsciiString[][] indexByLength(AsciiString[] names) {
+        int maxLength = 0;
+        for (AsciiString name : names) {
+            maxLength = Math.max(maxLength, name.length());
+        }
+
+        final AsciiString[][] table = new AsciiString[maxLength + 1][];
+        for (AsciiString name : names) {
+            final AsciiString[] candidates = table[name.length()];
+            if (candidates == null) {
+                table[name.length()] = new AsciiString[] { name };
+            } else {
+                table[name.length()] = Arrays.copyOf(candidates, candidates.length + 1);
+                table[name.length()][candidates.length] = name;
+            }
+        }
+        return table;
+    }
+}
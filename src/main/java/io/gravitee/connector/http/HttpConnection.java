@@ -16,11 +16,14 @@
 package io.gravitee.connector.http;
 
 import io.gravitee.common.http.HttpHeadersValues;
+import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.connector.api.Connection;
 import io.gravitee.connector.api.Response;
 import io.gravitee.connector.api.response.ClientConnectionErrorResponse;
 import io.gravitee.connector.api.response.ClientConnectionTimeoutResponse;
+import io.gravitee.connector.api.response.StatusResponse;
 import io.gravitee.connector.http.endpoint.HttpEndpoint;
+import io.gravitee.connector.http.vertx.VertxBuffers;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.handler.Handler;
@@ -35,15 +38,18 @@ import io.netty.channel.ConnectTimeoutException;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.*;
-import io.vertx.core.internal.buffer.BufferInternal;
 import java.net.ConnectException;
 import java.net.NoRouteToHostException;
 import java.net.UnknownHostException;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,24 +62,9 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
 
     private final Logger LOGGER = LoggerFactory.getLogger(this.getClass());
 
-    private static final Set<CharSequence> HOP_HEADERS;
     private static final String SERVER_NULL_PATTERN = " for server null";
-
-    static {
-        Set<CharSequence> hopHeaders = new HashSet<>();
-
-        // Hop-by-hop headers
-        hopHeaders.add(HttpHeaderNames.CONNECTION);
-        hopHeaders.add(HttpHeaderNames.KEEP_ALIVE);
-        hopHeaders.add(HttpHeaderNames.PROXY_AUTHORIZATION);
-        hopHeaders.add(HttpHeaderNames.PROXY_AUTHENTICATE);
-        hopHeaders.add(HttpHeaderNames.PROXY_CONNECTION);
-        hopHeaders.add(HttpHeaderNames.TE);
-        hopHeaders.add(HttpHeaderNames.TRAILER);
-        hopHeaders.add(HttpHeaderNames.UPGRADE);
-
-        HOP_HEADERS = Collections.unmodifiableSet(hopHeaders);
-    }
+    private static final String HTTPS_SCHEME = "https:";
+    private static final long MAX_RETRY_BACKOFF = 2000;
 
     protected HttpClientRequest httpClientRequest;
     private final ProxyRequest request;
@@ -83,8 +74,37 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
     private boolean transmitted = false;
     private boolean headersWritten = false;
     private boolean content = false;
+    private boolean ended = false;
     private String targetServer;
 
+    // Hedging of idempotent requests
+    private HttpClient httpClient;
+    private RequestOptions requestOptions;
+    private Handler<AsyncResult<HttpClientResponse>> upstreamResponseHandler;
+    private LatencyHistogram responseTimes;
+    private HttpClientRequest hedgedRequest;
+    private Vertx vertx;
+    private long hedgingTimer = -1;
+    private long sentAt;
+    private boolean responded = false;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreaker circuitBreaker;
+    private ConcurrencyLimiter.Permit hedgePermit;
+    private AddressBalancer.UpstreamAddress hedgeAddress;
+    private ConnectionPoolMetrics poolMetrics;
+    private ConnectionPoolMetrics.Request hedgePooledRequest;
+
+    // Retries of connection failures
+    private RetryBudget retryBudget;
+    private Handler<Void> tracker;
+    private Handler<Throwable> upstreamExceptionHandler;
+    private HttpClientRequest staleRequest;
+    private ObservableHttpClientRequest observableRequest;
+
+    // Balancing across the addresses of the endpoint
+    private AddressBalancer addressBalancer;
+    private AddressBalancer.UpstreamAddress upstreamAddress;
+
     public HttpConnection(HttpEndpoint endpoint, ProxyRequest request) {
         super(endpoint);
         this.request = request;
@@ -98,13 +118,22 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
         String host,
         String uri,
         Handler<Void> connectionHandler,
-        Handler<Void> tracker
+        Handler<Void> requestTracker
     ) {
+        // The address a request is sent to is counted as in flight until the request is completed
+        final Handler<Void> tracker = addressBalancer == null
+            ? requestTracker
+            : v -> {
+                releaseAddress();
+                requestTracker.handle(v);
+            };
         this.targetServer = host + ":" + port;
         // Remove HOP-by-HOP headers
-        for (CharSequence header : HOP_HEADERS) {
-            request.headers().remove(header.toString());
-        }
+        HopByHopHeaders.HTTP.strip(
+            request.headers(),
+            endpoint.getHeaders(),
+            endpoint.getHttpClientOptions().isStripConnectionHeaders()
+        );
 
         if (!endpoint.getHttpClientOptions().isPropagateClientAcceptEncoding()) {
             // Let the API Owner choose the Accept-Encoding between the gateway and the backend
@@ -112,7 +141,13 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
         }
 
         RequestOptions requestOptions = prepareRequestOptions(port, host, uri);
-        Future<HttpClientRequest> requestFuture = prepareUpstreamRequest(httpClient, requestOptions);
+        this.httpClient = httpClient;
+        this.requestOptions = requestOptions;
+        this.tracker = tracker;
+        if (retryBudget != null) {
+            retryBudget.deposit();
+        }
+        Future<HttpClientRequest> requestFuture = requestUpstream(httpClient, requestOptions, 0);
         requestFuture.onComplete(event -> {
             //Copy the request options to initialize the observable http client request headers not null
             var observableRequestOptions = new RequestOptions(requestOptions);
@@ -133,13 +168,12 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
             if (event.succeeded()) {
                 httpClientRequest = event.result();
                 observableHttpClientRequest.httpClientRequest(httpClientRequest);
+                observableRequest = observableHttpClientRequest;
 
-                httpClientRequest
-                    .response()
-                    .onComplete(response -> {
-                        // Prepare upstream response
-                        handleUpstreamResponse(ctx, response, tracker, requestSpan);
-                    });
+                // Prepare upstream response
+                upstreamResponseHandler = response -> handleUpstreamResponse(ctx, response, tracker, requestSpan);
+                final HttpClientRequest attempt = httpClientRequest;
+                httpClientRequest.response().onComplete(response -> handleAttemptResponse(attempt, response));
 
                 httpClientRequest
                     .connection()
@@ -154,12 +188,21 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
                         request.metrics().setMessage(t.getMessage());
                     });
 
-                httpClientRequest.exceptionHandler(exEvent -> {
+                upstreamExceptionHandler = exEvent -> {
                     ctx.getTracer().endOnError(requestSpan, exEvent.getCause());
                     if (!isCanceled() && !isTransmitted()) {
                         handleException(exEvent.getCause());
                         tracker.handle(null);
                     }
+                };
+                httpClientRequest.exceptionHandler(exEvent -> {
+                    if (attempt != httpClientRequest) {
+                        // The request lost against its hedged request and has been reset once the winner responded
+                        return;
+                    }
+                    if (!handOverToHedge(attempt) && !retryOnStaleConnection(attempt, exEvent)) {
+                        upstreamExceptionHandler.handle(exEvent);
+                    }
                 });
                 connectionHandler.handle(null);
             } else {
@@ -184,12 +227,536 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
         throw new UnsupportedOperationException("Not supported.");
     }
 
+    /**
+     * Get a request from the client, retrying with a jittered exponential backoff while the connection to the endpoint
+     * can't be established, i.e. the request has never reached it, as long as the retry budget allows it.
+     */
+    private Future<HttpClientRequest> requestUpstream(HttpClient httpClient, RequestOptions requestOptions, int attempt) {
+        if (addressBalancer != null && addressBalancer.addresses().length == 0) {
+            // Wait for the first lookup of the endpoint host rather than letting Vert.x resolve it without the settings
+            // of the endpoint resolver (ndots, search domains). Only when no address can be resolved at all (failed
+            // lookup, no Vert.x context) is the request sent to the host name, resolved by Vert.x.
+            return addressBalancer.resolve().compose(addresses -> connectUpstream(httpClient, requestOptions, attempt));
+        }
+        return connectUpstream(httpClient, requestOptions, attempt);
+    }
+
+    private Future<HttpClientRequest> connectUpstream(HttpClient httpClient, RequestOptions requestOptions, int attempt) {
+        selectAddress(requestOptions);
+        final long happyEyeballsDelay = endpoint.getHttpClientOptions().getHappyEyeballsDelay();
+        final Context currentContext = Vertx.currentContext();
+        // Only race while a connection to the address has to be established, not while waiting for one of the pool
+        final boolean race =
+            upstreamAddress != null &&
+            upstreamAddress.connections() == 0 &&
+            happyEyeballsDelay > 0 &&
+            currentContext != null &&
+            addressBalancer.isDualStack();
+        final Future<HttpClientRequest> requestFuture = race
+            ? new ConnectionRace(httpClient, requestOptions).start(currentContext.owner(), happyEyeballsDelay)
+            : prepareUpstreamRequest(httpClient, requestOptions);
+        return requestFuture.recover(cause -> {
+            if (upstreamAddress != null && isConnectFailure(cause)) {
+                upstreamAddress.eject();
+            }
+            if (!canRetryConnect(cause, attempt)) {
+                return Future.failedFuture(cause);
+            }
+
+            final long backoff = retryBackoff(attempt);
+            LOGGER.debug("Unable to connect to {}, retrying in {}ms: {}", targetServer, backoff, cause.getMessage());
+
+            final Context context = Vertx.currentContext();
+            if (context == null || backoff == 0) {
+                return requestUpstream(httpClient, requestOptions, attempt + 1);
+            }
+            return context
+                .owner()
+                .timer(backoff, TimeUnit.MILLISECONDS)
+                .compose(v -> isCanceled() ? Future.failedFuture(cause) : requestUpstream(httpClient, requestOptions, attempt + 1));
+        });
+    }
+
+    private boolean canRetryConnect(Throwable cause, int attempt) {
+        return (
+            retryBudget != null &&
+            !isCanceled() &&
+            attempt < endpoint.getHttpClientOptions().getMaxConnectRetries() &&
+            isConnectFailure(cause) &&
+            // A connect timeout has already waited for the whole connect timeout, retrying would multiply it
+            !(cause instanceof ConnectTimeoutException) &&
+            retryBudget.tryRetry()
+        );
+    }
+
+    private static boolean isConnectFailure(Throwable cause) {
+        return cause instanceof ConnectException || cause instanceof NoRouteToHostException;
+    }
+
+    /**
+     * Send the request to one of the addresses of the endpoint host, a retry going to another one.
+     */
+    private void selectAddress(RequestOptions requestOptions) {
+        if (addressBalancer != null) {
+            releaseAddress();
+            upstreamAddress = addressBalancer.select();
+            requestOptions.setServer(upstreamAddress != null ? upstreamAddress.socketAddress() : null);
+        }
+    }
+
+    /**
+     * Connection racing between the address families of the endpoint host (happy eyeballs, RFC 8305): the selected
+     * address is tried first, then an address of the other family once the delay has elapsed, or as soon as the first
+     * attempt fails. The first request obtained wins and the request options are updated with its address, the other one
+     * is released without being sent and its connection returned to the pool of its address. Addresses failing to
+     * connect are ejected.
+     */
+    private final class ConnectionRace {
+
+        private final HttpClient httpClient;
+        private final RequestOptions requestOptions;
+        private final AddressBalancer.UpstreamAddress primary;
+        private final Promise<HttpClientRequest> promise = Promise.promise();
+        private Vertx vertx;
+        private long timer = -1;
+        private AddressBalancer.UpstreamAddress fallback;
+        private boolean fallbackStarted;
+        private boolean fallbackReleased;
+        private int pending;
+        private Throwable failure;
+
+        private ConnectionRace(HttpClient httpClient, RequestOptions requestOptions) {
+            this.httpClient = httpClient;
+            this.requestOptions = requestOptions;
+            this.primary = upstreamAddress;
+        }
+
+        Future<HttpClientRequest> start(Vertx vertx, long delay) {
+            this.vertx = vertx;
+            attempt(primary, requestOptions);
+            if (!promise.future().isComplete() && !fallbackStarted) {
+                timer = vertx.setTimer(delay, timerId -> {
+                    timer = -1;
+                    startFallback();
+                });
+            }
+            return promise.future();
+        }
+
+        private void startFallback() {
+            if (fallbackStarted || promise.future().isComplete()) {
+                return;
+            }
+            fallbackStarted = true;
+            fallback = isCanceled() ? null : addressBalancer.selectOtherFamily(primary);
+            if (fallback == null) {
+                if (pending == 0) {
+                    promise.fail(failure);
+                }
+                return;
+            }
+
+            LOGGER.debug("Connection to {} is not established yet, racing it with {}", primary, fallback);
+            attempt(fallback, new RequestOptions(requestOptions).setServer(fallback.socketAddress()));
+        }
+
+        private void attempt(AddressBalancer.UpstreamAddress address, RequestOptions options) {
+            pending++;
+            prepareUpstreamRequest(httpClient, options).onComplete(result -> {
+                pending--;
+                if (result.succeeded()) {
+                    won(address, result.result());
+                } else {
+                    lost(address, result.cause());
+                }
+            });
+        }
+
+        private void won(AddressBalancer.UpstreamAddress address, HttpClientRequest attempt) {
+            if (promise.future().isComplete()) {
+                // The other attempt has already won
+                release(attempt);
+                return;
+            }
+
+            cancelTimer();
+            if (address == fallback) {
+                // The fallback address is now the one the request is counted on
+                fallbackReleased = true;
+                releaseAddress();
+                upstreamAddress = fallback;
+                // Hedged and traced requests go to the address which won, not to the slow one
+                requestOptions.setServer(fallback.socketAddress());
+            } else {
+                releaseFallback();
+            }
+            promise.complete(attempt);
+        }
+
+        private void lost(AddressBalancer.UpstreamAddress address, Throwable cause) {
+            failure = cause;
+            if (isConnectFailure(cause)) {
+                address.eject();
+            }
+            if (address == fallback) {
+                releaseFallback();
+            }
+
+            if (promise.future().isComplete()) {
+                return;
+            }
+            if (!fallbackStarted) {
+                // Don't wait for the delay, the preferred family is not reachable
+                cancelTimer();
+                startFallback();
+            } else if (pending == 0) {
+                promise.fail(cause);
+            }
+        }
+
+        /**
+         * Release a request which lost the race. Nothing has been written on it: resetting it only frees its stream and
+         * the established connection is recycled in the pool, as it is for a completed request, instead of being closed.
+         */
+        private void release(HttpClientRequest attempt) {
+            attempt.reset();
+        }
+
+        private void releaseFallback() {
+            if (fallback != null && !fallbackReleased) {
+                fallbackReleased = true;
+                fallback.release();
+            }
+        }
+
+        private void cancelTimer() {
+            if (timer != -1) {
+                vertx.cancelTimer(timer);
+                timer = -1;
+            }
+        }
+    }
+
+    private void releaseAddress() {
+        if (upstreamAddress != null) {
+            upstreamAddress.release();
+            upstreamAddress = null;
+        }
+    }
+
+    void addressBalancer(AddressBalancer addressBalancer) {
+        this.addressBalancer = addressBalancer;
+    }
+
+    private long retryBackoff(int attempt) {
+        // Equal jitter: half of the exponential delay, plus a random part of the other half
+        final long delay = Math.min(MAX_RETRY_BACKOFF, endpoint.getHttpClientOptions().getConnectRetryBackoff() << Math.min(attempt, 16));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Send an idempotent request without body once again when the pooled connection it has been sent on has been closed
+     * by the endpoint before any response (i.e. a keep-alive connection closed by the backend while being reused).
+     *
+     * @return <code>true</code> if the failure of the request is handled by a retry.
+     */
+    private boolean retryOnStaleConnection(HttpClientRequest attempt, Throwable cause) {
+        if (attempt == staleRequest) {
+            // Already retried, the failure is reported by both the request and its response
+            return true;
+        }
+        if (
+            retryBudget == null ||
+            endpoint.getHttpClientOptions().getMaxConnectRetries() <= 0 ||
+            staleRequest != null ||
+            attempt != httpClientRequest ||
+            responded ||
+            isCanceled() ||
+            isTransmitted() ||
+            !ended ||
+            content ||
+            !(cause instanceof HttpClosedException) ||
+            !isIdempotent(request.method()) ||
+            !retryBudget.tryRetry()
+        ) {
+            return false;
+        }
+
+        LOGGER.debug("Connection to {} closed before any response, retrying request", targetServer);
+        staleRequest = attempt;
+        // Same path as the first request: address selection, connect retries and request preparation of subclasses
+        requestUpstream(httpClient, requestOptions, 0).onComplete(event -> {
+            if (responded || isCanceled()) {
+                if (event.succeeded()) {
+                    event.result().reset();
+                }
+            } else if (event.failed()) {
+                handleException(event.cause());
+                tracker.handle(null);
+            } else {
+                final HttpClientRequest retry = event.result();
+                httpClientRequest = retry;
+                if (observableRequest != null) {
+                    observableRequest.httpClientRequest(retry);
+                }
+                send(
+                    retry,
+                    t -> {
+                        // Ignore the reset of a retry which lost against a hedged request
+                        if (retry == httpClientRequest && !handOverToHedge(retry)) {
+                            upstreamExceptionHandler.handle(t);
+                        }
+                    }
+                );
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Send the request once again, with the headers of the original one.
+     */
+    private void send(HttpClientRequest attempt, Handler<Throwable> exceptionHandler) {
+        attempt.exceptionHandler(exceptionHandler);
+        attempt.response().onComplete(response -> handleAttemptResponse(attempt, response));
+        copyHeaders(request.headers(), attempt.headers());
+        attempt.end();
+    }
+
+    void retryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * Handle the response of the request sent upstream, or of its hedged request if any: the first response wins and the
+     * other request is reset. A failure of either request while the other one is still in flight leaves the outcome to
+     * the other one.
+     */
+    private void handleAttemptResponse(HttpClientRequest attempt, AsyncResult<HttpClientResponse> response) {
+        if (responded) {
+            return;
+        }
+        if (response.failed()) {
+            if (attempt != httpClientRequest && attempt != hedgedRequest) {
+                // The request has already been handed over to its hedged request
+                return;
+            }
+            if (handOverToHedge(attempt) || retryOnStaleConnection(attempt, response.cause())) {
+                return;
+            }
+            if (attempt == hedgedRequest) {
+                // The first request is still in flight, a failing hedged request must not fail the whole request
+                hedgedRequest = null;
+                releaseHedge();
+                return;
+            }
+        }
+
+        responded = true;
+        cancelHedging();
+        final HttpClientRequest loser = attempt == hedgedRequest ? httpClientRequest : hedgedRequest;
+        if (attempt == hedgedRequest) {
+            promoteHedge();
+        }
+        releaseHedge();
+        httpClientRequest = attempt;
+        hedgedRequest = null;
+
+        if (responseTimes != null && sentAt != 0 && response.succeeded()) {
+            responseTimes.record(System.nanoTime() - sentAt);
+        }
+
+        upstreamResponseHandler.handle(response);
+
+        if (loser != null) {
+            loser.reset();
+        }
+    }
+
+    /**
+     * The request failed while its hedged request is still in flight: the hedged request becomes the request, its
+     * response, or failure, deciding the outcome.
+     *
+     * @return <code>true</code> if the failure of the request is handled by its hedged request.
+     */
+    private boolean handOverToHedge(HttpClientRequest attempt) {
+        if (responded || attempt != httpClientRequest || hedgedRequest == null) {
+            return false;
+        }
+
+        LOGGER.debug("Request to {} failed, waiting for its hedged request", targetServer);
+        promoteHedge();
+        if (observableRequest != null) {
+            observableRequest.httpClientRequest(httpClientRequest);
+        }
+        return true;
+    }
+
+    /**
+     * The hedged request becomes the request in flight: it is now counted on its address, while the permit and the pool
+     * tracking of the request cover it.
+     */
+    private void promoteHedge() {
+        httpClientRequest = hedgedRequest;
+        hedgedRequest = null;
+        if (hedgeAddress != null) {
+            releaseAddress();
+            upstreamAddress = hedgeAddress;
+            hedgeAddress = null;
+        }
+        releaseHedge();
+    }
+
+    void responseTimes(LatencyHistogram responseTimes) {
+        this.responseTimes = responseTimes;
+    }
+
+    /**
+     * A hedged request waits for a connection of the pool as any other request: it is tracked by the pool metrics.
+     */
+    void poolMetrics(ConnectionPoolMetrics poolMetrics) {
+        this.poolMetrics = poolMetrics;
+    }
+
+    /**
+     * A hedged request is one more request in flight to the endpoint: it needs a permit of the limiter, if any.
+     */
+    void concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Requests are only hedged while the circuit breaker, if any, is closed.
+     */
+    void circuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    private void scheduleHedging() {
+        final long hedgingDelay = endpoint.getHttpClientOptions().getHedgingDelay();
+        if (hedgingDelay == 0 || content || !isIdempotent(request.method())) {
+            return;
+        }
+
+        sentAt = System.nanoTime();
+        // A negative delay means hedging once the request is slower than 95% of the previous ones
+        final long delay = hedgingDelay > 0 ? hedgingDelay : (responseTimes != null ? responseTimes.percentile95() : -1);
+        final Context context = Vertx.currentContext();
+        if (delay > 0 && context != null) {
+            vertx = context.owner();
+            hedgingTimer = vertx.setTimer(delay, timerId -> hedge());
+        }
+    }
+
+    /**
+     * Send the same request once again, on another connection, as the first one is late. Hedging adds load to an endpoint
+     * which is already slow: a hedged request is a retry, taken from the retry budget, counted by the concurrency
+     * limiter, and not sent while the circuit breaker is not closed. It is prepared as the first request, and sent to
+     * another address of the same family than the first one when the endpoint addresses are balanced.
+     */
+    void hedge() {
+        hedgingTimer = -1;
+        if (responded || canceled || httpClient == null || retryBudget == null) {
+            return;
+        }
+        if (circuitBreaker != null && circuitBreaker.state() != CircuitBreaker.State.CLOSED) {
+            return;
+        }
+        if (concurrencyLimiter != null) {
+            hedgePermit = concurrencyLimiter.tryAcquire();
+            if (hedgePermit == null) {
+                return;
+            }
+        }
+        if (!retryBudget.tryRetry()) {
+            releaseHedgePermit();
+            return;
+        }
+
+        RequestOptions hedgeOptions = requestOptions;
+        if (addressBalancer != null) {
+            hedgeAddress = upstreamAddress != null ? addressBalancer.selectOther(upstreamAddress) : addressBalancer.select();
+            hedgeOptions = new RequestOptions(requestOptions).setServer(hedgeAddress != null ? hedgeAddress.socketAddress() : null);
+        }
+        hedgePooledRequest = poolMetrics != null ? poolMetrics.requestPending() : null;
+
+        prepareUpstreamRequest(httpClient, hedgeOptions).onComplete(event -> {
+            if (event.failed()) {
+                if (hedgePooledRequest != null && event.cause() instanceof ConnectionPoolTooBusyException) {
+                    hedgePooledRequest.rejected();
+                }
+                if (hedgeAddress != null && isConnectFailure(event.cause())) {
+                    hedgeAddress.eject();
+                }
+                releaseHedge();
+                LOGGER.debug("Unable to send hedged request to {}: {}", targetServer, event.cause().getMessage());
+                return;
+            }
+
+            final HttpClientRequest attempt = event.result();
+            if (hedgePooledRequest != null) {
+                hedgePooledRequest.acquired();
+            }
+            if (responded || canceled) {
+                attempt.reset();
+                releaseHedge();
+                return;
+            }
+
+            hedgedRequest = attempt;
+            send(attempt, t -> LOGGER.debug("Hedged request to {} failed: {}", targetServer, t.getMessage()));
+        });
+    }
+
+    private void cancelHedging() {
+        if (hedgingTimer != -1) {
+            vertx.cancelTimer(hedgingTimer);
+            hedgingTimer = -1;
+        }
+    }
+
+    private void releaseHedgePermit() {
+        if (hedgePermit != null) {
+            hedgePermit.release();
+            hedgePermit = null;
+        }
+    }
+
+    /**
+     * Release everything a hedged request is counted on: its permit, its address and its tracking by the pool metrics.
+     */
+    private void releaseHedge() {
+        releaseHedgePermit();
+        if (hedgeAddress != null) {
+            hedgeAddress.release();
+            hedgeAddress = null;
+        }
+        if (hedgePooledRequest != null) {
+            hedgePooledRequest.ended();
+            hedgePooledRequest = null;
+        }
+    }
+
+    private static boolean isIdempotent(io.gravitee.common.http.HttpMethod method) {
+        return (
+            method == io.gravitee.common.http.HttpMethod.GET ||
+            method == io.gravitee.common.http.HttpMethod.HEAD ||
+            method == io.gravitee.common.http.HttpMethod.OPTIONS
+        );
+    }
+
     private void handleException(Throwable cause) {
         if (!isCanceled() && !isTransmitted()) {
             String errorMessage = rewriteServerNull(cause.getMessage());
             request.metrics().setMessage(errorMessage);
 
-            if (
+            if (cause instanceof ConnectionPoolTooBusyException) {
+                // The pool wait queue is full: shed the load right away rather than queueing more requests
+                if (pooledRequest() != null) {
+                    pooledRequest().rejected();
+                }
+                sendToClient(new StatusResponse(HttpStatusCode.SERVICE_UNAVAILABLE_503));
+            } else if (
                 timeoutHandler() != null &&
                 (cause instanceof ConnectException ||
                     cause instanceof TimeoutException ||
@@ -219,7 +786,7 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
             .setMethod(HttpMethod.valueOf(request.method().name()))
             .setPort(port)
             .setURI(uri)
-            .setSsl(request.uri().split(":")[0].equalsIgnoreCase("https"))
+            .setSsl(request.uri().regionMatches(true, 0, HTTPS_SCHEME, 0, HTTPS_SCHEME.length()))
             .setTimeout(endpoint.getHttpClientOptions().getReadTimeout())
             .setFollowRedirects(endpoint.getHttpClientOptions().isFollowRedirects());
     }
@@ -255,8 +822,8 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
 
             response.cancelHandler(tracker);
 
-            // Copy body content
-            clientResponse.handler(event -> response.bodyHandler().handle(Buffer.buffer(event.getBytes())));
+            // Forward body content, sharing the Vert.x buffer instead of copying it
+            clientResponse.handler(event -> response.bodyHandler().handle(VertxBuffers.toGateway(event)));
 
             // Signal end of the response
             clientResponse.endHandler(event -> {
@@ -280,7 +847,7 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
             });
 
             clientResponse.customFrameHandler(frame ->
-                response.writeCustomFrame(HttpFrame.create(frame.type(), frame.flags(), Buffer.buffer(frame.payload())))
+                response.writeCustomFrame(HttpFrame.create(frame.type(), frame.flags(), VertxBuffers.toGateway(frame.payload())))
             );
 
             // And send it to the client
@@ -297,9 +864,14 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
     @Override
     public Connection cancel() {
         this.canceled = true;
+        cancelHedging();
+        releaseHedge();
         if (this.httpClientRequest != null) {
             this.httpClientRequest.reset();
         }
+        if (this.hedgedRequest != null) {
+            this.hedgedRequest.reset();
+        }
         if (cancelHandler != null) {
             cancelHandler.handle(null);
         }
@@ -330,6 +902,7 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
     }
 
     private void handleConnectTimeout(Throwable throwable) {
+        notifyFailure(throwable);
         if (this.timeoutHandler != null) {
             this.timeoutHandler.handle(throwable);
         }
@@ -361,7 +934,7 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
                 httpClientRequest.headers().set(io.gravitee.gateway.api.http.HttpHeaderNames.CONTENT_LENGTH, "0");
             }
 
-            httpClientRequest.write(BufferInternal.buffer(chunk.getNativeBuffer()));
+            httpClientRequest.write(VertxBuffers.toVertx(chunk));
         }
         return this;
     }
@@ -408,12 +981,23 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
         }
 
         // Copy headers to upstream
-        request
-            .headers()
-            .names()
-            .forEach(name -> {
-                httpClientRequest.headers().set(name, request.headers().getAll(name));
-            });
+        copyHeaders(headers, httpClientRequest.headers());
+    }
+
+    /**
+     * Copy all the entries of the gateway headers to the upstream headers, keeping the order of multi-valued headers.
+     * Headers already present upstream (i.e. set from the request options) are overridden as with <code>set</code>.
+     */
+    private static void copyHeaders(HttpHeaders headers, MultiMap upstreamHeaders) {
+        if (!upstreamHeaders.isEmpty()) {
+            for (Map.Entry<String, String> header : headers) {
+                upstreamHeaders.remove(header.getKey());
+            }
+        }
+
+        for (Map.Entry<String, String> header : headers) {
+            upstreamHeaders.add(header.getKey(), header.getValue());
+        }
     }
 
     @Override
@@ -426,6 +1010,8 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
 
             if (!canceled) {
                 httpClientRequest.end();
+                ended = true;
+                scheduleHedging();
             }
         }
     }
@@ -433,7 +1019,7 @@ public class HttpConnection<T extends HttpResponse> extends AbstractHttpConnecti
     @Override
     public Connection writeCustomFrame(HttpFrame frame) {
         if (httpClientRequest != null) {
-            httpClientRequest.writeCustomFrame(frame.type(), frame.flags(), BufferInternal.buffer(frame.payload().getNativeBuffer()));
+            httpClientRequest.writeCustomFrame(frame.type(), frame.flags(), VertxBuffers.toVertx(frame.payload()));
         }
 
         return this;
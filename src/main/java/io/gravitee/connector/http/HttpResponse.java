@@ -35,6 +35,7 @@ public class HttpResponse extends AbstractResponse {
 
     private final HttpHeaders httpHeaders;
     private final HttpClientResponse httpClientResponse;
+    private HttpHeaders httpTrailers;
 
     public HttpResponse(final HttpClientResponse httpClientResponse) {
         this.httpClientResponse = httpClientResponse;
@@ -82,6 +83,10 @@ public class HttpResponse extends AbstractResponse {
 
     @Override
     public HttpHeaders trailers() {
-        return new VertxHttpHeaders(this.httpClientResponse.trailers());
+        // Vert.x always returns the same trailers instance, filled once the response has ended
+        if (httpTrailers == null) {
+            httpTrailers = new VertxHttpHeaders(this.httpClientResponse.trailers());
+        }
+        return httpTrailers;
     }
 }
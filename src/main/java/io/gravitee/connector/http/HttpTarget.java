@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+/**
+ * Immutable, pre-parsed scheme / host / port of an absolute URI.
+ *
+ * The endpoint target is parsed once when the connector starts, then each proxied URI sharing the same origin
+ * (scheme and authority) only needs {@link #pathAndQuery(String)} to be sent upstream. URIs targeting another origin
+ * are parsed with {@link #parse(String)}, which does a single pass over the string and never uses {@link java.net.URL}.
+ *
+ * Parsing mimics the subset of {@link java.net.URL} the connector relies on: user info and fragment are dropped, IPv6
+ * hosts keep their brackets and the default port depends on the scheme being secure or not.
+ *
+ * @author GraviteeSource Team
+ */
+public final class HttpTarget {
+
+    private static final String SCHEME_SEPARATOR = "://";
+
+    private final String origin;
+    private final String scheme;
+    private final String host;
+    private final int port;
+    private final boolean secure;
+    private final String hostHeader;
+    private final String path;
+
+    private HttpTarget(String origin, String scheme, String host, int port, boolean secure, String path) {
+        this.origin = origin;
+        this.scheme = scheme;
+        this.host = host;
+        this.port = port;
+        this.secure = secure;
+        this.path = path;
+        this.hostHeader = (port == AbstractHttpConnector.UNSECURE_PORT || port == AbstractHttpConnector.SECURE_PORT)
+            ? host
+            : host + ':' + port;
+    }
+
+    /**
+     * Parse an absolute URI such as <code>https://user@api.gravitee.io:8443/echo?q=1#top</code>.
+     *
+     * @param uri the absolute URI to parse.
+     * @return the parsed target.
+     * @throws IllegalArgumentException if the URI has no scheme, no host or an invalid port.
+     */
+    public static HttpTarget parse(String uri) {
+        if (uri == null) {
+            throw new IllegalArgumentException("URI must not be null");
+        }
+
+        final int schemeEnd = uri.indexOf(SCHEME_SEPARATOR);
+        if (schemeEnd <= 0) {
+            throw new IllegalArgumentException("No scheme found in URI " + uri);
+        }
+        for (int i = 0; i < schemeEnd; i++) {
+            if (!isSchemeChar(uri.charAt(i))) {
+                throw new IllegalArgumentException("No scheme found in URI " + uri);
+            }
+        }
+
+        final int authorityStart = schemeEnd + SCHEME_SEPARATOR.length();
+        int authorityEnd = authorityStart;
+        while (authorityEnd < uri.length() && !isAuthorityTerminator(uri.charAt(authorityEnd))) {
+            authorityEnd++;
+        }
+
+        // Skip user info if any
+        int hostStart = uri.lastIndexOf('@', authorityEnd - 1);
+        hostStart = hostStart < authorityStart ? authorityStart : hostStart + 1;
+
+        final int hostEnd;
+        int portStart = -1;
+        if (hostStart < authorityEnd && uri.charAt(hostStart) == '[') {
+            // IPv6 literal
+            final int closingBracket = uri.indexOf(']', hostStart);
+            if (closingBracket == -1 || closingBracket >= authorityEnd) {
+                throw new IllegalArgumentException("Invalid IPv6 host in URI " + uri);
+            }
+            hostEnd = closingBracket + 1;
+            if (hostEnd < authorityEnd) {
+                if (uri.charAt(hostEnd) != ':') {
+                    throw new IllegalArgumentException("Invalid authority in URI " + uri);
+                }
+                portStart = hostEnd + 1;
+            }
+        } else {
+            final int portSeparator = uri.lastIndexOf(':', authorityEnd - 1);
+            if (portSeparator >= hostStart) {
+                hostEnd = portSeparator;
+                portStart = portSeparator + 1;
+            } else {
+                hostEnd = authorityEnd;
+            }
+        }
+
+        if (hostEnd == hostStart) {
+            throw new IllegalArgumentException("No host found in URI " + uri);
+        }
+
+        final String scheme = uri.substring(0, schemeEnd);
+        final boolean secure = AbstractHttpConnector.isSecureProtocol(scheme);
+
+        int port = portStart == -1 ? -1 : parsePort(uri, portStart, authorityEnd);
+        if (port == -1) {
+            port = secure ? AbstractHttpConnector.SECURE_PORT : AbstractHttpConnector.UNSECURE_PORT;
+        }
+
+        int pathEnd = authorityEnd;
+        while (pathEnd < uri.length() && uri.charAt(pathEnd) != '?' && uri.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+
+        return new HttpTarget(
+            uri.substring(0, authorityEnd),
+            scheme,
+            uri.substring(hostStart, hostEnd),
+            port,
+            secure,
+            uri.substring(authorityEnd, pathEnd)
+        );
+    }
+
+    /**
+     * @param uri an absolute URI.
+     * @return <code>true</code> if the URI starts with the same scheme and authority as this target, so that
+     * {@link #pathAndQuery(String)} can be used without parsing it again.
+     */
+    public boolean isOriginOf(String uri) {
+        return (
+            uri.startsWith(origin) && (uri.length() == origin.length() || isAuthorityTerminator(uri.charAt(origin.length())))
+        );
+    }
+
+    /**
+     * Extract the part of an absolute URI to send upstream, i.e. the path and the query string without the fragment.
+     *
+     * @param uri an absolute URI sharing the origin of this target.
+     * @return the path and query of the URI, which may be empty.
+     */
+    public String pathAndQuery(String uri) {
+        final int fragment = uri.indexOf('#', origin.length());
+        return uri.substring(origin.length(), fragment == -1 ? uri.length() : fragment);
+    }
+
+    public String scheme() {
+        return scheme;
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public boolean secure() {
+        return secure;
+    }
+
+    /**
+     * @return the value of the <code>Host</code> header, the port being omitted when it is 80 or 443.
+     */
+    public String hostHeader() {
+        return hostHeader;
+    }
+
+    /**
+     * @return the path of the parsed URI, without query nor fragment, which may be empty.
+     */
+    public String path() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return origin + path;
+    }
+
+    private static boolean isSchemeChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.';
+    }
+
+    private static boolean isAuthorityTerminator(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+
+    private static int parsePort(String uri, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+
+        int port = 0;
+        for (int i = start; i < end; i++) {
+            final char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid port in URI " + uri);
+            }
+            port = port * 10 + (c - '0');
+            if (port > 0xFFFF) {
+                throw new IllegalArgumentException("Invalid port in URI " + uri);
+            }
+        }
+        return port;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate, decaying histogram of the response times of an endpoint, used to get their 95th percentile.
+ *
+ * Response times are counted in exponential buckets (each one 25% wider than the previous one, from 1ms to about a
+ * minute), so that a percentile is at most 25% above the actual value. Counts are halved once enough samples have been
+ * recorded, so that the percentile follows the recent behavior of the endpoint. The percentile itself is only
+ * computed again every {@link #REFRESH_INTERVAL} samples.
+ *
+ * Samples are recorded from all the event loops using the endpoint.
+ *
+ * @author GraviteeSource Team
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKETS = 50;
+    private static final double GROWTH = 1.25;
+    private static final long[] UPPER_BOUNDS = new long[BUCKETS];
+
+    static final int MIN_SAMPLES = 100;
+    static final int REFRESH_INTERVAL = 64;
+    private static final int DECAY_THRESHOLD = 2000;
+
+    static {
+        double bound = TimeUnit.MILLISECONDS.toNanos(1);
+        for (int i = 0; i < BUCKETS; i++) {
+            UPPER_BOUNDS[i] = (long) bound;
+            bound *= GROWTH;
+        }
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private volatile long percentile95 = -1;
+
+    void record(long nanos) {
+        counts.incrementAndGet(bucket(nanos));
+        final long samples = total.incrementAndGet();
+
+        if (samples % REFRESH_INTERVAL == 0) {
+            if (samples >= DECAY_THRESHOLD) {
+                decay();
+            }
+            percentile95 = computePercentile(0.95);
+        }
+    }
+
+    /**
+     * @return the 95th percentile of the response times in milliseconds, or <code>-1</code> while there are not enough
+     * samples to get a meaningful value.
+     */
+    long percentile95() {
+        return percentile95;
+    }
+
+    private synchronized void decay() {
+        long remaining = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count;
+            do {
+                count = counts.get(i);
+            } while (!counts.compareAndSet(i, count, count / 2));
+            remaining += count / 2;
+        }
+        total.set(remaining);
+    }
+
+    private long computePercentile(double percentile) {
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            samples += counts.get(i);
+        }
+        if (samples < MIN_SAMPLES) {
+            return -1;
+        }
+
+        final long rank = (long) Math.ceil(samples * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(UPPER_BOUNDS[i]));
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(UPPER_BOUNDS[BUCKETS - 1]);
+    }
+
+    private static int bucket(long nanos) {
+        int low = 0;
+        int high = BUCKETS - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (UPPER_BOUNDS[middle] < nanos) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
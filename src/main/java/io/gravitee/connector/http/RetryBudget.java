@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Budget of the retries an endpoint can afford, so that retries can't turn a struggling backend into a dead one.
+ *
+ * Each request sent to the endpoint deposits a fraction of a retry (i.e. 0.1 for a 10% budget) and each retry
+ * withdraws a whole one. The budget starts with {@link #MIN_RETRIES} retries, so that an endpoint serving only a few
+ * requests can still retry, and is capped to {@link #MAX_RETRIES} so that a long period without failures doesn't
+ * allow a burst of retries.
+ *
+ * The budget is shared by all the event loops using the endpoint.
+ *
+ * @author GraviteeSource Team
+ */
+final class RetryBudget {
+
+    static final int MIN_RETRIES = 10;
+    static final int MAX_RETRIES = 100;
+
+    // Balance is counted in thousandths of a retry to avoid floating point arithmetic
+    private static final long SCALE = 1000;
+    private static final long MAX_BALANCE = MAX_RETRIES * SCALE;
+
+    private final long deposit;
+    private final AtomicLong balance = new AtomicLong(MIN_RETRIES * SCALE);
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * @param percent the retries allowed, as a percentage of the requests.
+     */
+    RetryBudget(int percent) {
+        this.deposit = Math.max(0, percent) * SCALE / 100;
+    }
+
+    void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= MAX_BALANCE) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(MAX_BALANCE, current + deposit)));
+    }
+
+    /**
+     * @return <code>true</code> if a retry is allowed, and withdrawn from the budget.
+     */
+    boolean tryRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                exhausted.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+
+        retries.increment();
+        return true;
+    }
+
+    long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return the number of retries denied because the budget was exhausted.
+     */
+    long exhausted() {
+        return exhausted.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryBudget{" + "retries=" + retries() + ", exhausted=" + exhausted() + ", balance=" + balance.get() / SCALE + '}';
+    }
+}
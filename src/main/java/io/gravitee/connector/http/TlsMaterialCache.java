@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.JksOptions;
+import io.vertx.core.net.KeyCertOptions;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.core.net.PfxOptions;
+import io.vertx.core.net.TrustOptions;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Trust and key material shared by all the clients of all the connectors using the same stores.
+ *
+ * Each client builds its own SSL context from its options, parsing the stores again: identical stores (e.g. the same
+ * internal CA for thousands of APIs) would be parsed and held in memory once per connector and per event loop. The
+ * stores are instead keyed by a hash of their content (type, value or path, password), their trust and key manager
+ * factories are built once, and the clients are given options wrapping these factories.
+ *
+ * Stores read from files are given with the content the connector read from them (see {@link TlsStoreFiles}), so that
+ * a rotated store gets its own entry.
+ * Entries are reference counted: connectors acquire them on start (or on reload) and release them on stop (or once
+ * replaced), the last release evicts the entry.
+ *
+ * @author GraviteeSource Team
+ */
+final class TlsMaterialCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TlsMaterialCache.class);
+
+    private static final ConcurrentMap<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private TlsMaterialCache() {}
+
+    /**
+     * Acquire the shared material of trust or key options, to be {@link #release(Entry) released} once no longer used.
+     *
+     * @return the entry, or <code>null</code> if the options are not backed by a store which can be shared.
+     */
+    static Entry acquire(Object options) {
+        final JsonObject content = content(options);
+        if (content == null) {
+            return null;
+        }
+
+        final String key = key(options.getClass().getName(), content);
+        return ENTRIES.compute(key, (k, entry) -> {
+            final Entry acquired = entry != null ? entry : new Entry(k, options);
+            acquired.references++;
+            return acquired;
+        });
+    }
+
+    static void release(Entry entry) {
+        ENTRIES.computeIfPresent(entry.key, (k, current) -> {
+            if (current != entry) {
+                return current;
+            }
+            return --current.references > 0 ? current : null;
+        });
+    }
+
+    static int size() {
+        return ENTRIES.size();
+    }
+
+    private static JsonObject content(Object options) {
+        if (options instanceof PemTrustOptions) {
+            return ((PemTrustOptions) options).toJson();
+        } else if (options instanceof PemKeyCertOptions) {
+            return ((PemKeyCertOptions) options).toJson();
+        } else if (options instanceof PfxOptions) {
+            return ((PfxOptions) options).toJson();
+        } else if (options instanceof JksOptions) {
+            return ((JksOptions) options).toJson();
+        }
+        return null;
+    }
+
+    private static String key(String type, JsonObject content) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(type.getBytes(StandardCharsets.UTF_8));
+            digest.update(content.toBuffer().getBytes());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Material of a store, its manager factory being built the first time a client needs it.
+     */
+    static final class Entry {
+
+        private final String key;
+        private final Object options;
+
+        // Guarded by the map
+        private int references;
+
+        // Guarded by this
+        private Object shared;
+
+        private Entry(String key, Object options) {
+            this.key = key;
+            this.options = options;
+        }
+
+        /**
+         * @return trust options wrapping the shared trust manager factory, or the original options if it can't be built
+         * so that the client reports the error as usual.
+         */
+        TrustOptions trustOptions(Vertx vertx) {
+            return (TrustOptions) share(() -> TrustOptions.wrap(((TrustOptions) options).getTrustManagerFactory(vertx)));
+        }
+
+        /**
+         * @return key options wrapping the shared key manager factory, or the original options if it can't be built so
+         * that the client reports the error as usual.
+         */
+        KeyCertOptions keyCertOptions(Vertx vertx) {
+            return (KeyCertOptions) share(() -> KeyCertOptions.wrap(((KeyCertOptions) options).getKeyManagerFactory(vertx)));
+        }
+
+        private synchronized Object share(Callable<Object> builder) {
+            if (shared == null) {
+                try {
+                    // Parsed only once for all the clients, the blocking time is negligible next to the one it saves
+                    shared = builder.call();
+                } catch (Exception e) {
+                    LOGGER.debug("Unable to build shared TLS material, using the store as is: {}", e.getMessage());
+                    shared = options;
+                }
+            }
+            return shared;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.gravitee.connector.http.endpoint.HttpClientSslOptions;
+import io.micrometer.core.instrument.Tags;
+import io.netty.handler.ssl.DelegatingSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.vertx.core.net.JdkSSLEngineOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
+import io.vertx.core.net.SSLEngineOptions;
+import io.vertx.core.spi.tls.DefaultSslContextFactory;
+import io.vertx.core.spi.tls.SslContextFactory;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * TLS sessions of an endpoint, shared by all its clients so that new connections resume a previous session (session
+ * cache or session ticket) instead of negotiating a new one with a full handshake.
+ *
+ * Each client builds its own SSL context, with its own session cache: a connection opened by another event loop, or
+ * after the idle eviction of the previous ones, pays for a full handshake. The SSL engine options given to the clients
+ * build a single SSL context per material version and configuration (engine, ALPN, application protocols, server name,
+ * cipher suites) for the whole endpoint, the size and timeout of its session cache being those of the endpoint. The
+ * trust and key material only change with the version, on reload: contexts of the previous versions are dropped then.
+ *
+ * The named groups of the endpoint, if any, are set on each SSL engine created from these contexts.
+ *
+ * Handshakes are counted as full or resumed, a handshake being resumed when it ends with a session already established
+ * by a previous handshake of the endpoint, i.e. with a known session id. Their duration is measured from the creation
+ * of the TLS handler.
+ *
+ * @author GraviteeSource Team
+ */
+public final class TlsSessions {
+
+    private final int sessionCacheSize;
+    private final int sessionTimeout;
+    private final String[] namedGroups;
+
+    // Guarded by this
+    private final Map<ContextKey, SslContext> contexts = new HashMap<>();
+    private int version;
+
+    // Guarded by itself, ids of the sessions which may still be resumed
+    private final Map<ByteBuffer, Boolean> sessionIds;
+
+    private final LongAdder fullHandshakes = new LongAdder();
+    private final LongAdder resumedHandshakes = new LongAdder();
+    private final LongAdder failedHandshakes = new LongAdder();
+    private final LongAdder handshakeTime = new LongAdder();
+
+    public TlsSessions(HttpClientSslOptions options) {
+        this.sessionCacheSize = options != null ? options.getSessionCacheSize() : HttpClientSslOptions.DEFAULT_SESSION_CACHE_SIZE;
+        this.sessionTimeout = options != null ? options.getSessionTimeout() : HttpClientSslOptions.DEFAULT_SESSION_TIMEOUT;
+        this.namedGroups = options != null && options.getNamedGroups() != null && !options.getNamedGroups().isEmpty()
+            ? options.getNamedGroups().toArray(new String[0])
+            : null;
+        // Sessions evicted from the session caches can't be resumed anymore
+        final int maxSessionIds = sessionCacheSize > 0 ? sessionCacheSize : HttpClientSslOptions.DEFAULT_SESSION_CACHE_SIZE;
+        this.sessionIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Boolean> eldest) {
+                return size() > maxSessionIds;
+            }
+        };
+    }
+
+    /**
+     * @return engine options of the same engine as the given ones, building the SSL contexts shared by the endpoint
+     * for the current material version.
+     */
+    SSLEngineOptions engineOptions(SSLEngineOptions engineOptions) {
+        final int version = version();
+        if (engineOptions instanceof OpenSSLEngineOptions) {
+            return new SharedOpenSSLEngineOptions((OpenSSLEngineOptions) engineOptions, this, version);
+        }
+        return new SharedJdkSSLEngineOptions(
+            engineOptions instanceof JdkSSLEngineOptions ? (JdkSSLEngineOptions) engineOptions : new JdkSSLEngineOptions(),
+            this,
+            version
+        );
+    }
+
+    /**
+     * @return a factory of the SSL contexts of the given material version, creating them only once per configuration.
+     */
+    SslContextFactory factory(SslProvider provider, boolean sessionCacheEnabled, int version) {
+        return new SharedSslContextFactory(provider, sessionCacheEnabled, version);
+    }
+
+    private synchronized int version() {
+        return version;
+    }
+
+    private SslContext context(ContextKey key, SharedSslContextFactory factory) throws SSLException {
+        synchronized (this) {
+            final SslContext context = contexts.get(key);
+            if (context != null) {
+                return context;
+            }
+        }
+
+        final SslContext context = new MeteredSslContext(factory.createContext());
+        final SSLSessionContext sessionContext = context.sessionContext();
+        if (sessionContext != null) {
+            sessionContext.setSessionCacheSize(sessionCacheSize);
+            sessionContext.setSessionTimeout(sessionTimeout);
+        }
+
+        synchronized (this) {
+            if (key.version != version) {
+                // Built from the material of a previous version, by a client not updated yet: not shared
+                return context;
+            }
+            final SslContext previous = contexts.putIfAbsent(key, context);
+            return previous != null ? previous : context;
+        }
+    }
+
+    /**
+     * Move to a new material version, i.e. once the trust or key material of the endpoint has been reloaded: the SSL
+     * contexts of the previous versions are dropped. Connections established from them are not affected.
+     */
+    synchronized void reloaded() {
+        version++;
+        contexts.clear();
+    }
+
+    /**
+     * Register the handshake meters of the endpoint.
+     */
+    public void bindTo(EndpointMeters meters) {
+        meters.counter("tls.handshakes", Tags.of("result", "full"), "Full TLS handshakes", this, TlsSessions::fullHandshakes);
+        meters.counter("tls.handshakes", Tags.of("result", "resumed"), "Resumed TLS handshakes", this, TlsSessions::resumedHandshakes);
+        meters.counter("tls.handshakes", Tags.of("result", "failed"), "Failed TLS handshakes", this, TlsSessions::failedHandshakes);
+        meters.timer(
+            "tls.handshake",
+            "Duration of the successful TLS handshakes",
+            this,
+            sessions -> sessions.fullHandshakes() + sessions.resumedHandshakes(),
+            sessions -> sessions.handshakeTime.sum()
+        );
+    }
+
+    /**
+     * @return <code>true</code> if the session has already been established by a previous handshake, recording it
+     * otherwise.
+     */
+    boolean isResumed(SSLSession session) {
+        final byte[] id = session.getId();
+        if (id == null || id.length == 0) {
+            // Without id, the session can't be resumed
+            return false;
+        }
+        synchronized (sessionIds) {
+            return sessionIds.put(ByteBuffer.wrap(id.clone()), Boolean.TRUE) != null;
+        }
+    }
+
+    void onHandshake(long nanos, boolean resumed) {
+        if (resumed) {
+            resumedHandshakes.increment();
+        } else {
+            fullHandshakes.increment();
+        }
+        handshakeTime.add(nanos);
+    }
+
+    void onHandshakeFailure() {
+        failedHandshakes.increment();
+    }
+
+    long fullHandshakes() {
+        return fullHandshakes.sum();
+    }
+
+    long resumedHandshakes() {
+        return resumedHandshakes.sum();
+    }
+
+    long failedHandshakes() {
+        return failedHandshakes.sum();
+    }
+
+    /**
+     * @return the average duration of the successful handshakes, in milliseconds.
+     */
+    double averageHandshakeTime() {
+        final long count = fullHandshakes() + resumedHandshakes();
+        return count == 0 ? 0 : (double) handshakeTime.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "TlsSessions{" +
+            "fullHandshakes=" +
+            fullHandshakes() +
+            ", resumedHandshakes=" +
+            resumedHandshakes() +
+            ", failedHandshakes=" +
+            failedHandshakes() +
+            ", averageHandshakeTime=" +
+            String.format("%.2f", averageHandshakeTime()) +
+            "ms" +
+            '}'
+        );
+    }
+
+    /**
+     * Configuration of an SSL context, compared by value. The trust and key managers are not part of it: they are
+     * those of the material version.
+     */
+    private record ContextKey(
+        int version,
+        SslProvider provider,
+        boolean forClient,
+        boolean useAlpn,
+        List<String> applicationProtocols,
+        Set<String> enabledCipherSuites,
+        String serverName
+    ) {}
+
+    /**
+     * Factory of the SSL contexts of a material version, recording the configuration given by the client in whatever
+     * order, the SSL context itself being built by the Vert.x factory only when there is none for this configuration.
+     */
+    private final class SharedSslContextFactory extends DefaultSslContextFactory {
+
+        private final SslProvider provider;
+        private final int version;
+        private boolean forClient;
+        private boolean useAlpn;
+        private List<String> applicationProtocols;
+        private Set<String> enabledCipherSuites;
+        private String serverName;
+
+        private SharedSslContextFactory(SslProvider provider, boolean sessionCacheEnabled, int version) {
+            super(provider, sessionCacheEnabled);
+            this.provider = provider;
+            this.version = version;
+        }
+
+        @Override
+        public SslContextFactory forClient(boolean forClient) {
+            this.forClient = forClient;
+            return super.forClient(forClient);
+        }
+
+        @Override
+        public SslContextFactory useAlpn(boolean useAlpn) {
+            this.useAlpn = useAlpn;
+            return super.useAlpn(useAlpn);
+        }
+
+        @Override
+        public SslContextFactory applicationProtocols(List<String> applicationProtocols) {
+            this.applicationProtocols = applicationProtocols != null ? List.copyOf(applicationProtocols) : null;
+            return super.applicationProtocols(applicationProtocols);
+        }
+
+        @Override
+        public SslContextFactory enabledCipherSuites(Set<String> enabledCipherSuites) {
+            this.enabledCipherSuites = enabledCipherSuites != null ? Set.copyOf(enabledCipherSuites) : null;
+            return super.enabledCipherSuites(enabledCipherSuites);
+        }
+
+        @Override
+        public SslContextFactory serverName(String serverName) {
+            this.serverName = serverName;
+            return super.serverName(serverName);
+        }
+
+        @Override
+        public SslContext create() throws SSLException {
+            return context(
+                new ContextKey(version, provider, forClient, useAlpn, applicationProtocols, enabledCipherSuites, serverName),
+                this
+            );
+        }
+
+        private SslContext createContext() throws SSLException {
+            return super.create();
+        }
+    }
+
+    /**
+     * SSL context measuring the handshakes of the connections it is used for.
+     */
+    private final class MeteredSslContext extends DelegatingSslContext {
+
+        private MeteredSslContext(SslContext context) {
+            super(context);
+        }
+
+        @Override
+        protected void initEngine(SSLEngine engine) {
+            // Not an option of the SSL context factory, set on each engine instead
+            if (namedGroups != null) {
+                final SSLParameters parameters = engine.getSSLParameters();
+                parameters.setNamedGroups(namedGroups);
+                engine.setSSLParameters(parameters);
+            }
+        }
+
+        @Override
+        protected void initHandler(SslHandler handler) {
+            final long start = System.nanoTime();
+            handler
+                .handshakeFuture()
+                .addListener(future -> {
+                    if (future.isSuccess()) {
+                        onHandshake(System.nanoTime() - start, isResumed(handler.engine().getSession()));
+                    } else {
+                        onHandshakeFailure();
+                    }
+                });
+        }
+    }
+
+    private static final class SharedJdkSSLEngineOptions extends JdkSSLEngineOptions {
+
+        private final TlsSessions sessions;
+        private final int version;
+
+        private SharedJdkSSLEngineOptions(JdkSSLEngineOptions options, TlsSessions sessions, int version) {
+            super(options);
+            this.sessions = sessions;
+            this.version = version;
+        }
+
+        @Override
+        public SslContextFactory sslContextFactory() {
+            return sessions.factory(SslProvider.JDK, false, version);
+        }
+
+        @Override
+        public JdkSSLEngineOptions copy() {
+            return new SharedJdkSSLEngineOptions(this, sessions, version);
+        }
+    }
+
+    private static final class SharedOpenSSLEngineOptions extends OpenSSLEngineOptions {
+
+        private final TlsSessions sessions;
+        private final int version;
+
+        private SharedOpenSSLEngineOptions(OpenSSLEngineOptions options, TlsSessions sessions, int version) {
+            super(options);
+            this.sessions = sessions;
+            this.version = version;
+            setSessionCacheEnabled(true);
+        }
+
+        @Override
+        public SslContextFactory sslContextFactory() {
+            return sessions.factory(SslProvider.OPENSSL, isSessionCacheEnabled(), version);
+        }
+
+        @Override
+        public OpenSSLEngineOptions copy() {
+            return new SharedOpenSSLEngineOptions(this, sessions, version);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.JksOptions;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.core.net.PfxOptions;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Files of the trust and key stores of an endpoint, watched to reload the stores once they have been rotated.
+ *
+ * The version of the files is a hash of their content rather than of their modification time: mounted secrets (i.e.
+ * Kubernetes) are swapped through symbolic links, keeping modification times and sizes which may be those of the
+ * previous files. Stores are small, reading them once per check is cheap, but blocking.
+ *
+ * The files are read once per check: the stores given to the clients are built from the bytes of the {@link Snapshot}
+ * which were hashed, so that a file rotated between the check and the reload can't be parsed in another version than
+ * the one recorded.
+ *
+ * @author GraviteeSource Team
+ */
+final class TlsStoreFiles {
+
+    static final TlsStoreFiles NONE = new TlsStoreFiles(Collections.emptyList());
+
+    private final List<String> paths;
+
+    private TlsStoreFiles(List<String> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * @return the files of the given trust and key options, options not read from files being ignored.
+     */
+    static TlsStoreFiles of(Object... options) {
+        final List<String> paths = new ArrayList<>();
+        for (Object option : options) {
+            if (option instanceof PemTrustOptions) {
+                paths.addAll(((PemTrustOptions) option).getCertPaths());
+            } else if (option instanceof PemKeyCertOptions) {
+                paths.addAll(((PemKeyCertOptions) option).getCertPaths());
+                paths.addAll(((PemKeyCertOptions) option).getKeyPaths());
+            } else if (option instanceof PfxOptions) {
+                add(paths, ((PfxOptions) option).getPath());
+            } else if (option instanceof JksOptions) {
+                add(paths, ((JksOptions) option).getPath());
+            }
+        }
+        return paths.isEmpty() ? NONE : new TlsStoreFiles(Collections.unmodifiableList(paths));
+    }
+
+    /**
+     * @return whether any of the given trust and key options holds a store given inline rather than read from files.
+     */
+    static boolean hasValues(Object... options) {
+        for (Object option : options) {
+            if (option instanceof PemTrustOptions) {
+                if (!((PemTrustOptions) option).getCertValues().isEmpty()) {
+                    return true;
+                }
+            } else if (option instanceof PemKeyCertOptions) {
+                final PemKeyCertOptions pem = (PemKeyCertOptions) option;
+                if (!pem.getCertValues().isEmpty() || !pem.getKeyValues().isEmpty()) {
+                    return true;
+                }
+            } else if (option instanceof PfxOptions) {
+                if (((PfxOptions) option).getValue() != null) {
+                    return true;
+                }
+            } else if (option instanceof JksOptions) {
+                if (((JksOptions) option).getValue() != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void add(List<String> paths, String path) {
+        if (path != null) {
+            paths.add(path);
+        }
+    }
+
+    boolean isEmpty() {
+        return paths.isEmpty();
+    }
+
+    List<String> paths() {
+        return paths;
+    }
+
+    /**
+     * @return the current version of the files, a missing file being part of the version as such.
+     */
+    String version() {
+        return read().version();
+    }
+
+    /**
+     * Read the files, blocking.
+     */
+    Snapshot read() {
+        if (paths.isEmpty()) {
+            return Snapshot.EMPTY;
+        }
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final Map<String, byte[]> contents = new HashMap<>();
+            for (String path : paths) {
+                digest.update(path.getBytes(StandardCharsets.UTF_8));
+                try {
+                    final byte[] content = Files.readAllBytes(Paths.get(path));
+                    digest.update(content);
+                    contents.put(path, content);
+                } catch (NoSuchFileException e) {
+                    // Being rotated, or not there yet: the client will report it when building its SSL context
+                    digest.update((byte) 0);
+                } catch (IOException e) {
+                    digest.update((byte) 1);
+                }
+            }
+            return new Snapshot(HexFormat.of().formatHex(digest.digest()), contents);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Content of the files at the time they were read, and its version.
+     */
+    static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot("", Collections.emptyMap());
+
+        private final String version;
+        private final Map<String, byte[]> contents;
+
+        private Snapshot(String version, Map<String, byte[]> contents) {
+            this.version = version;
+            this.contents = contents;
+        }
+
+        String version() {
+            return version;
+        }
+
+        /**
+         * @return options of the same store with the content of its files instead of their paths, or the given options
+         * if they are not read from files or one of these files could not be read, so that the client reports it.
+         */
+        @SuppressWarnings("unchecked")
+        <T> T inline(T options) {
+            if (options instanceof PemTrustOptions) {
+                final PemTrustOptions pem = (PemTrustOptions) options;
+                final List<Buffer> certs = contents(pem.getCertPaths(), pem.getCertValues());
+                if (certs == null) {
+                    return options;
+                }
+                final PemTrustOptions inlined = new PemTrustOptions();
+                certs.forEach(inlined::addCertValue);
+                return (T) inlined;
+            } else if (options instanceof PemKeyCertOptions) {
+                final PemKeyCertOptions pem = (PemKeyCertOptions) options;
+                // Keys and certificates are paired by position, paths first, as Vert.x does
+                final List<Buffer> keys = contents(pem.getKeyPaths(), pem.getKeyValues());
+                final List<Buffer> certs = contents(pem.getCertPaths(), pem.getCertValues());
+                if (keys == null || certs == null) {
+                    return options;
+                }
+                final PemKeyCertOptions inlined = new PemKeyCertOptions();
+                keys.forEach(inlined::addKeyValue);
+                certs.forEach(inlined::addCertValue);
+                return (T) inlined;
+            } else if (options instanceof PfxOptions) {
+                final PfxOptions pfx = (PfxOptions) options;
+                final byte[] content = pfx.getPath() != null ? contents.get(pfx.getPath()) : null;
+                return content == null ? options : (T) new PfxOptions(pfx).setPath(null).setValue(Buffer.buffer(content));
+            } else if (options instanceof JksOptions) {
+                final JksOptions jks = (JksOptions) options;
+                final byte[] content = jks.getPath() != null ? contents.get(jks.getPath()) : null;
+                return content == null ? options : (T) new JksOptions(jks).setPath(null).setValue(Buffer.buffer(content));
+            }
+            return options;
+        }
+
+        private List<Buffer> contents(List<String> paths, List<Buffer> values) {
+            final List<Buffer> result = new ArrayList<>();
+            for (String path : paths) {
+                final byte[] content = contents.get(path);
+                if (content == null) {
+                    return null;
+                }
+                result.add(Buffer.buffer(content));
+            }
+            result.addAll(values);
+            return result;
+        }
+    }
+}
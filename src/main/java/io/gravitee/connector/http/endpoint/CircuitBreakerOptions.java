@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.endpoint;
+
+import java.io.Serializable;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class CircuitBreakerOptions implements Serializable {
+
+    public static boolean DEFAULT_ENABLED = false;
+    public static int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    public static int DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+    public static long DEFAULT_SLOW_CALL_DURATION = 10000;
+    public static int DEFAULT_WINDOW_SIZE = 100;
+    public static int DEFAULT_MINIMUM_CALLS = 20;
+    public static long DEFAULT_OPEN_DURATION = 10000;
+    public static int DEFAULT_PERMITTED_PROBES = 5;
+
+    private boolean enabled = DEFAULT_ENABLED;
+
+    /**
+     * Percentage of failed calls (connection errors, timeouts, 502, 503 and 504 responses) opening the circuit.
+     */
+    private int failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+
+    /**
+     * Percentage of slow calls opening the circuit.
+     */
+    private int slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+
+    /**
+     * Time, in milliseconds, after which a call is considered slow.
+     */
+    private long slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+
+    /**
+     * Number of the last calls the rates are computed on.
+     */
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    /**
+     * Number of calls required before the rates are computed.
+     */
+    private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+
+    /**
+     * Time, in milliseconds, the circuit stays open before letting probe calls through.
+     */
+    private long openDuration = DEFAULT_OPEN_DURATION;
+
+    /**
+     * Number of probe calls let through while the circuit is half-open.
+     */
+    private int permittedProbes = DEFAULT_PERMITTED_PROBES;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(long slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(long openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getPermittedProbes() {
+        return permittedProbes;
+    }
+
+    public void setPermittedProbes(int permittedProbes) {
+        this.permittedProbes = permittedProbes;
+    }
+}
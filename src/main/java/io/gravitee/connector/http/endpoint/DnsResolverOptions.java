@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.endpoint;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Settings of the DNS resolver used to resolve the endpoint host name, instead of the one of the Vert.x instance.
+ *
+ * @author GraviteeSource Team
+ */
+public class DnsResolverOptions implements Serializable {
+
+    public static boolean DEFAULT_ENABLED = false;
+    public static int DEFAULT_MIN_TTL = 0;
+    public static int DEFAULT_MAX_TTL = 86400;
+    public static int DEFAULT_NEGATIVE_TTL = 0;
+    public static int DEFAULT_NDOTS = -1;
+    public static AddressFamily DEFAULT_ADDRESS_FAMILY = AddressFamily.IPV4_PREFERRED;
+    public static long DEFAULT_QUERY_TIMEOUT = 5000;
+
+    private boolean enabled = DEFAULT_ENABLED;
+
+    /**
+     * Minimum time, in seconds, a resolved address is cached for, whatever the TTL of its record.
+     */
+    private int minTtl = DEFAULT_MIN_TTL;
+
+    /**
+     * Maximum time, in seconds, a resolved address is cached for, whatever the TTL of its record.
+     */
+    private int maxTtl = DEFAULT_MAX_TTL;
+
+    /**
+     * Time, in seconds, a failed resolution is cached for. <code>0</code> to not cache failures.
+     */
+    private int negativeTtl = DEFAULT_NEGATIVE_TTL;
+
+    /**
+     * Number of dots a host name must have to be resolved as is before trying the search domains. <code>-1</code> to
+     * use the one of <code>/etc/resolv.conf</code>.
+     */
+    private int ndots = DEFAULT_NDOTS;
+
+    /**
+     * Domains appended to host names with less dots than {@link #ndots}. <code>null</code> to use the ones of
+     * <code>/etc/resolv.conf</code>, empty to not use any.
+     */
+    private List<String> searchDomains;
+
+    private AddressFamily addressFamily = DEFAULT_ADDRESS_FAMILY;
+
+    /**
+     * Time, in milliseconds, to wait for the answer of a DNS query.
+     */
+    private long queryTimeout = DEFAULT_QUERY_TIMEOUT;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMinTtl() {
+        return minTtl;
+    }
+
+    public void setMinTtl(int minTtl) {
+        this.minTtl = minTtl;
+    }
+
+    public int getMaxTtl() {
+        return maxTtl;
+    }
+
+    public void setMaxTtl(int maxTtl) {
+        this.maxTtl = maxTtl;
+    }
+
+    public int getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(int negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    public int getNdots() {
+        return ndots;
+    }
+
+    public void setNdots(int ndots) {
+        this.ndots = ndots;
+    }
+
+    public List<String> getSearchDomains() {
+        return searchDomains;
+    }
+
+    public void setSearchDomains(List<String> searchDomains) {
+        this.searchDomains = searchDomains;
+    }
+
+    public AddressFamily getAddressFamily() {
+        return addressFamily;
+    }
+
+    public void setAddressFamily(AddressFamily addressFamily) {
+        this.addressFamily = addressFamily;
+    }
+
+    public long getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(long queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+}
@@ -37,6 +37,25 @@ public class HttpClientOptions implements Serializable {
     public static ProtocolVersion DEFAULT_PROTOCOL_VERSION = ProtocolVersion.HTTP_1_1;
     public static int DEFAULT_MAX_HEADER_SIZE = 8192;
     public static int DEFAULT_MAX_CHUNK_SIZE = 8192;
+    public static boolean DEFAULT_SHARED_POOL = false;
+    public static int DEFAULT_MAX_WAIT_QUEUE_SIZE = -1;
+    public static int DEFAULT_WARM_UP_CONNECTIONS = 0;
+    public static int DEFAULT_HTTP2_MULTIPLEXING_LIMIT = -1;
+    public static int DEFAULT_HTTP2_CONNECTION_WINDOW_SIZE = -1;
+    public static int DEFAULT_HTTP2_STREAM_WINDOW_SIZE = -1;
+    public static long DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS = -1;
+    public static long DEFAULT_HTTP2_HEADER_TABLE_SIZE = 4096;
+    public static long DEFAULT_HTTP2_KEEP_ALIVE_TIMEOUT = 60000;
+    public static boolean DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT = false;
+    public static int DEFAULT_MAX_CONCURRENCY_LIMIT = 1000;
+    public static long DEFAULT_HEDGING_DELAY = 0;
+    public static int DEFAULT_MAX_CONNECT_RETRIES = 0;
+    public static long DEFAULT_CONNECT_RETRY_BACKOFF = 100;
+    public static int DEFAULT_RETRY_BUDGET_PERCENT = 10;
+    public static boolean DEFAULT_ADDRESS_LOAD_BALANCING = false;
+    public static long DEFAULT_ADDRESS_REFRESH_INTERVAL = 30000;
+    public static long DEFAULT_HAPPY_EYEBALLS_DELAY = 250;
+    public static boolean DEFAULT_STRIP_CONNECTION_HEADERS = false;
 
     private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
 
@@ -64,6 +83,111 @@ public class HttpClientOptions implements Serializable {
     private int maxHeaderSize = DEFAULT_MAX_HEADER_SIZE;
     private int maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
 
+    /**
+     * Share a single client, and so a single connection pool, between all the event loops instead of one per event loop.
+     */
+    private boolean sharedPool = DEFAULT_SHARED_POOL;
+
+    /**
+     * Maximum number of requests waiting for a connection from the pool, -1 meaning unbounded. Once reached, requests
+     * are answered immediately with a 503 instead of being queued.
+     */
+    private int maxWaitQueueSize = DEFAULT_MAX_WAIT_QUEUE_SIZE;
+
+    /**
+     * Number of connections opened by the shared pool, or by the pool of each event loop when it is created (right
+     * away for the starting event loop), and by the pool of each resolved address when they are balanced, 0 to disable.
+     * HTTP/2 pools open a single connection, and a connection is always left for the first requests.
+     */
+    private int warmUpConnections = DEFAULT_WARM_UP_CONNECTIONS;
+
+    /**
+     * HTTP/2 only: maximum number of concurrent streams per connection, -1 to rely on the server settings.
+     */
+    private int http2MultiplexingLimit = DEFAULT_HTTP2_MULTIPLEXING_LIMIT;
+
+    /**
+     * HTTP/2 only: flow control window of the whole connection, in bytes, -1 to keep the protocol default (64 KB).
+     * Larger windows let a single connection carry more data in flight, at the cost of the memory buffered per
+     * connection: they must be opted in.
+     */
+    private int http2ConnectionWindowSize = DEFAULT_HTTP2_CONNECTION_WINDOW_SIZE;
+
+    /**
+     * HTTP/2 only: initial flow control window of each stream, in bytes, -1 to keep the protocol default (64 KB).
+     */
+    private int http2StreamWindowSize = DEFAULT_HTTP2_STREAM_WINDOW_SIZE;
+
+    /**
+     * HTTP/2 only: maximum number of streams the server is allowed to open, -1 to keep the protocol default.
+     */
+    private long http2MaxConcurrentStreams = DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS;
+
+    /**
+     * HTTP/2 only: size of the HPACK header table, in bytes.
+     */
+    private long http2HeaderTableSize = DEFAULT_HTTP2_HEADER_TABLE_SIZE;
+
+    /**
+     * HTTP/2 only: time, in milliseconds, an idle HTTP/2 connection is kept in the pool.
+     */
+    private long http2KeepAliveTimeout = DEFAULT_HTTP2_KEEP_ALIVE_TIMEOUT;
+
+    /**
+     * Adapt the limit of requests in flight to the endpoint latency, rejecting the requests over the limit.
+     */
+    private boolean adaptiveConcurrencyLimit = DEFAULT_ADAPTIVE_CONCURRENCY_LIMIT;
+
+    /**
+     * Upper bound of the adaptive concurrency limit.
+     */
+    private int maxConcurrencyLimit = DEFAULT_MAX_CONCURRENCY_LIMIT;
+
+    /**
+     * Delay, in milliseconds, after which a GET, HEAD or OPTIONS request without response is sent once again on another
+     * connection. 0 disables hedging, a negative value uses the 95th percentile of the endpoint response times.
+     */
+    private long hedgingDelay = DEFAULT_HEDGING_DELAY;
+
+    /**
+     * Number of times a request is retried when the connection to the endpoint can't be established. 0 disables retries,
+     * including the retry of idempotent requests sent on a connection closed by the endpoint.
+     */
+    private int maxConnectRetries = DEFAULT_MAX_CONNECT_RETRIES;
+
+    /**
+     * Base delay, in milliseconds, before retrying to connect. It doubles on each attempt, with some random jitter.
+     */
+    private long connectRetryBackoff = DEFAULT_CONNECT_RETRY_BACKOFF;
+
+    /**
+     * Retries allowed for the endpoint, as a percentage of the requests.
+     */
+    private int retryBudgetPercent = DEFAULT_RETRY_BUDGET_PERCENT;
+
+    /**
+     * Spread the requests across all the addresses the endpoint host resolves to, with a connection pool per address.
+     * Max concurrent connections applies to each of these pools.
+     */
+    private boolean addressLoadBalancing = DEFAULT_ADDRESS_LOAD_BALANCING;
+
+    /**
+     * Time, in milliseconds, after which the addresses of the endpoint host are resolved again.
+     */
+    private long addressRefreshInterval = DEFAULT_ADDRESS_REFRESH_INTERVAL;
+
+    /**
+     * Time, in milliseconds, after which a connection to an address of the other family (IPv4 / IPv6) is attempted
+     * while the one to the preferred family is not established yet. <code>0</code> to disable connection racing.
+     */
+    private long happyEyeballsDelay = DEFAULT_HAPPY_EYEBALLS_DELAY;
+
+    /**
+     * Also strip the headers listed in the <code>Connection</code> header of the request. Disabled by default since
+     * a client could then remove headers set by policies (<code>Authorization</code>, transformed headers...).
+     */
+    private boolean stripConnectionHeaders = DEFAULT_STRIP_CONNECTION_HEADERS;
+
     public long getConnectTimeout() {
         return connectTimeout;
     }
@@ -176,4 +300,156 @@ public class HttpClientOptions implements Serializable {
     public void setMaxChunkSize(int maxChunkSize) {
         this.maxChunkSize = maxChunkSize;
     }
+
+    public boolean isSharedPool() {
+        return sharedPool;
+    }
+
+    public void setSharedPool(boolean sharedPool) {
+        this.sharedPool = sharedPool;
+    }
+
+    public int getMaxWaitQueueSize() {
+        return maxWaitQueueSize;
+    }
+
+    public void setMaxWaitQueueSize(int maxWaitQueueSize) {
+        this.maxWaitQueueSize = maxWaitQueueSize;
+    }
+
+    public int getWarmUpConnections() {
+        return warmUpConnections;
+    }
+
+    public void setWarmUpConnections(int warmUpConnections) {
+        this.warmUpConnections = warmUpConnections;
+    }
+
+    public int getHttp2MultiplexingLimit() {
+        return http2MultiplexingLimit;
+    }
+
+    public void setHttp2MultiplexingLimit(int http2MultiplexingLimit) {
+        this.http2MultiplexingLimit = http2MultiplexingLimit;
+    }
+
+    public int getHttp2ConnectionWindowSize() {
+        return http2ConnectionWindowSize;
+    }
+
+    public void setHttp2ConnectionWindowSize(int http2ConnectionWindowSize) {
+        this.http2ConnectionWindowSize = http2ConnectionWindowSize;
+    }
+
+    public int getHttp2StreamWindowSize() {
+        return http2StreamWindowSize;
+    }
+
+    public void setHttp2StreamWindowSize(int http2StreamWindowSize) {
+        this.http2StreamWindowSize = http2StreamWindowSize;
+    }
+
+    public long getHttp2MaxConcurrentStreams() {
+        return http2MaxConcurrentStreams;
+    }
+
+    public void setHttp2MaxConcurrentStreams(long http2MaxConcurrentStreams) {
+        this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+    }
+
+    public long getHttp2HeaderTableSize() {
+        return http2HeaderTableSize;
+    }
+
+    public void setHttp2HeaderTableSize(long http2HeaderTableSize) {
+        this.http2HeaderTableSize = http2HeaderTableSize;
+    }
+
+    public long getHttp2KeepAliveTimeout() {
+        return http2KeepAliveTimeout;
+    }
+
+    public void setHttp2KeepAliveTimeout(long http2KeepAliveTimeout) {
+        this.http2KeepAliveTimeout = http2KeepAliveTimeout;
+    }
+
+    public boolean isAdaptiveConcurrencyLimit() {
+        return adaptiveConcurrencyLimit;
+    }
+
+    public void setAdaptiveConcurrencyLimit(boolean adaptiveConcurrencyLimit) {
+        this.adaptiveConcurrencyLimit = adaptiveConcurrencyLimit;
+    }
+
+    public int getMaxConcurrencyLimit() {
+        return maxConcurrencyLimit;
+    }
+
+    public void setMaxConcurrencyLimit(int maxConcurrencyLimit) {
+        this.maxConcurrencyLimit = maxConcurrencyLimit;
+    }
+
+    public long getHedgingDelay() {
+        return hedgingDelay;
+    }
+
+    public void setHedgingDelay(long hedgingDelay) {
+        this.hedgingDelay = hedgingDelay;
+    }
+
+    public int getMaxConnectRetries() {
+        return maxConnectRetries;
+    }
+
+    public void setMaxConnectRetries(int maxConnectRetries) {
+        this.maxConnectRetries = maxConnectRetries;
+    }
+
+    public long getConnectRetryBackoff() {
+        return connectRetryBackoff;
+    }
+
+    public void setConnectRetryBackoff(long connectRetryBackoff) {
+        this.connectRetryBackoff = connectRetryBackoff;
+    }
+
+    public int getRetryBudgetPercent() {
+        return retryBudgetPercent;
+    }
+
+    public void setRetryBudgetPercent(int retryBudgetPercent) {
+        this.retryBudgetPercent = retryBudgetPercent;
+    }
+
+    public boolean isAddressLoadBalancing() {
+        return addressLoadBalancing;
+    }
+
+    public void setAddressLoadBalancing(boolean addressLoadBalancing) {
+        this.addressLoadBalancing = addressLoadBalancing;
+    }
+
+    public long getAddressRefreshInterval() {
+        return addressRefreshInterval;
+    }
+
+    public void setAddressRefreshInterval(long addressRefreshInterval) {
+        this.addressRefreshInterval = addressRefreshInterval;
+    }
+
+    public long getHappyEyeballsDelay() {
+        return happyEyeballsDelay;
+    }
+
+    public void setHappyEyeballsDelay(long happyEyeballsDelay) {
+        this.happyEyeballsDelay = happyEyeballsDelay;
+    }
+
+    public boolean isStripConnectionHeaders() {
+        return stripConnectionHeaders;
+    }
+
+    public void setStripConnectionHeaders(boolean stripConnectionHeaders) {
+        this.stripConnectionHeaders = stripConnectionHeaders;
+    }
 }
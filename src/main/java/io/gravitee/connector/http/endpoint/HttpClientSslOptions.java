@@ -17,6 +17,7 @@ package io.gravitee.connector.http.endpoint;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -24,6 +25,10 @@ import java.io.Serializable;
  */
 public class HttpClientSslOptions implements Serializable {
 
+    public static int DEFAULT_SESSION_CACHE_SIZE = 1024;
+    public static int DEFAULT_SESSION_TIMEOUT = 3600;
+    public static long DEFAULT_RELOAD_INTERVAL = 0;
+
     @JsonProperty("trustAll")
     private boolean trustAll;
 
@@ -36,6 +41,49 @@ public class HttpClientSslOptions implements Serializable {
     @JsonProperty("keyStore")
     private KeyStore keyStore;
 
+    /**
+     * Number of TLS sessions kept to resume the handshakes with the endpoint. <code>0</code> for no limit.
+     */
+    @JsonProperty("sessionCacheSize")
+    private int sessionCacheSize = DEFAULT_SESSION_CACHE_SIZE;
+
+    /**
+     * Time, in seconds, after which a cached TLS session can no longer be resumed. <code>0</code> for no limit.
+     */
+    @JsonProperty("sessionTimeout")
+    private int sessionTimeout = DEFAULT_SESSION_TIMEOUT;
+
+    /**
+     * Interval, in milliseconds, between the checks of the trust and key store files, new connections using the new
+     * stores once they have changed. <code>0</code>, the default, to never reload them: each check reads the files.
+     * Stores given inline are not watched, they are refreshed by redeploying the endpoint.
+     */
+    @JsonProperty("reloadInterval")
+    private long reloadInterval = DEFAULT_RELOAD_INTERVAL;
+
+    @JsonProperty("engine")
+    private SslEngine engine = SslEngine.DEFAULT;
+
+    /**
+     * TLS protocol versions enabled for the endpoint (i.e. <code>TLSv1.3</code>). Empty for the defaults of the engine.
+     */
+    @JsonProperty("protocols")
+    private List<String> protocols;
+
+    /**
+     * Cipher suites enabled for the endpoint, in order of preference. Empty for the defaults of the engine.
+     */
+    @JsonProperty("cipherSuites")
+    private List<String> cipherSuites;
+
+    /**
+     * Named groups (key exchange) enabled for the endpoint, in order of preference (i.e. <code>x25519</code>). Empty for
+     * the defaults of the engine. Only the JDK engine applies them: the <code>AUTO</code> engine then selects the JDK one,
+     * and an endpoint using OpenSSL is rejected.
+     */
+    @JsonProperty("namedGroups")
+    private List<String> namedGroups;
+
     public boolean isHostnameVerifier() {
         return hostnameVerifier;
     }
@@ -67,4 +115,60 @@ public class HttpClientSslOptions implements Serializable {
     public void setKeyStore(KeyStore keyStore) {
         this.keyStore = keyStore;
     }
+
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    public void setSessionCacheSize(int sessionCacheSize) {
+        this.sessionCacheSize = sessionCacheSize;
+    }
+
+    public int getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    public void setSessionTimeout(int sessionTimeout) {
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    public long getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(long reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public SslEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(SslEngine engine) {
+        this.engine = engine;
+    }
+
+    public List<String> getProtocols() {
+        return protocols;
+    }
+
+    public void setProtocols(List<String> protocols) {
+        this.protocols = protocols;
+    }
+
+    public List<String> getCipherSuites() {
+        return cipherSuites;
+    }
+
+    public void setCipherSuites(List<String> cipherSuites) {
+        this.cipherSuites = cipherSuites;
+    }
+
+    public List<String> getNamedGroups() {
+        return namedGroups;
+    }
+
+    public void setNamedGroups(List<String> namedGroups) {
+        this.namedGroups = namedGroups;
+    }
 }
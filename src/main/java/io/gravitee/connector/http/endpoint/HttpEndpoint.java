@@ -45,6 +45,12 @@ public class HttpEndpoint extends AbstractEndpoint {
     @JsonProperty("headers")
     private List<HttpHeader> headers;
 
+    @JsonProperty("circuitBreaker")
+    private CircuitBreakerOptions circuitBreakerOptions;
+
+    @JsonProperty("dns")
+    private DnsResolverOptions dnsResolverOptions;
+
     @JsonCreator
     public HttpEndpoint(
         @JsonProperty(value = "type") String type,
@@ -69,4 +75,12 @@ public class HttpEndpoint extends AbstractEndpoint {
     public HttpClientSslOptions getHttpClientSslOptions() {
         return httpClientSslOptions;
     }
+
+    public CircuitBreakerOptions getCircuitBreakerOptions() {
+        return circuitBreakerOptions;
+    }
+
+    public DnsResolverOptions getDnsResolverOptions() {
+        return dnsResolverOptions;
+    }
 }
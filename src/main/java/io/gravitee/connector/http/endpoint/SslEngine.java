@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.endpoint;
+
+import com.fasterxml.jackson.annotation.JsonEnumDefaultValue;
+
+/**
+ * SSL engine used to secure the connections to the endpoint.
+ *
+ * @author GraviteeSource Team
+ */
+public enum SslEngine {
+    /**
+     * Engine of the node: OpenSSL if <code>http.ssl.openssl</code> is enabled, the JDK one otherwise.
+     */
+    @JsonEnumDefaultValue
+    DEFAULT,
+    /**
+     * OpenSSL (or BoringSSL) if available and no named groups are set, the JDK one otherwise.
+     */
+    AUTO,
+    JDK,
+    OPENSSL,
+}
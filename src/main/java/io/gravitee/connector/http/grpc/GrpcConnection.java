@@ -40,22 +40,16 @@ public class GrpcConnection extends HttpConnection<HttpResponse> {
         super(endpoint, request);
     }
 
-    protected RequestOptions prepareRequestOptions(
-        int port,
-        String host,
-        String uri,
-        final io.gravitee.gateway.api.http.HttpHeaders headers
-    ) {
-        return new RequestOptions()
-            .setHost(host)
+    @Override
+    protected RequestOptions prepareRequestOptions(int port, String host, String uri) {
+        return super
+            .prepareRequestOptions(port, host, uri)
+            // gRPC calls are always POST requests
             .setMethod(HttpMethod.POST)
-            .setPort(port)
-            .setURI(uri)
-            // Ensure required gRPC headers
+            // Default gRPC headers: a content type sent by the client (e.g. application/grpc+proto) replaces this one when
+            // headers are copied, while the client TE header, being hop-by-hop, never reaches upstream and must be set back
             .putHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_GRPC)
-            .putHeader(HttpHeaderNames.TE, GRPC_TRAILERS_TE)
-            .setTimeout(endpoint.getHttpClientOptions().getReadTimeout())
-            .setFollowRedirects(endpoint.getHttpClientOptions().isFollowRedirects());
+            .putHeader(HttpHeaderNames.TE, GRPC_TRAILERS_TE);
     }
 
     @Override
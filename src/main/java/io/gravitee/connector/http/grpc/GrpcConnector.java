@@ -39,6 +39,7 @@ public class GrpcConnector extends AbstractHttpConnector<HttpEndpoint> {
 
         // For GRPC, force HTTP/2 protocol
         options.setProtocolVersion(HttpVersion.HTTP_2).setHttp2ClearTextUpgrade(false);
+        configureHttp2Options(options);
 
         return options;
     }
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.vertx;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.vertx.core.internal.buffer.BufferInternal;
+
+/**
+ * Bridges between gateway and Vert.x buffers sharing the underlying Netty <code>ByteBuf</code> instead of copying it.
+ *
+ * Buffers received by the Vert.x HTTP client are already copied out of the Netty pooled buffers by Vert.x itself, they
+ * are unpooled heap buffers which don't need to be released. The wrappers only hold a duplicate of the buffer (own
+ * reader / writer indexes, shared content), so there is no reference count to retain nor to release.
+ *
+ * @author GraviteeSource Team
+ */
+public final class VertxBuffers {
+
+    private VertxBuffers() {}
+
+    /**
+     * Wrap a Vert.x buffer into a gateway buffer without copying its content.
+     */
+    public static Buffer toGateway(io.vertx.core.buffer.Buffer buffer) {
+        return Buffer.buffer(((BufferInternal) buffer).getByteBuf());
+    }
+
+    /**
+     * Wrap a gateway buffer into a Vert.x buffer without copying its content.
+     */
+    public static io.vertx.core.buffer.Buffer toVertx(Buffer buffer) {
+        return BufferInternal.buffer(buffer.getNativeBuffer());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.vertx;
+
+import io.netty.channel.Channel;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.net.impl.ConnectionBase;
+
+/**
+ * Access to the Netty channel of Vert.x connections.
+ *
+ * Vert.x doesn't expose the channel of a connection in its public API, and the only close notification it offers is
+ * the single close handler of the connection, which belongs to the application. This class is the only place relying
+ * on the Vert.x internal connection API (<code>io.vertx.core.net.impl</code>), which may change between Vert.x
+ * versions without notice: callers must cope with a <code>null</code> channel.
+ *
+ * @author GraviteeSource Team
+ */
+public final class VertxConnections {
+
+    private VertxConnections() {}
+
+    /**
+     * @return the channel of the connection, <code>null</code> if it can't be accessed.
+     */
+    public static Channel channel(HttpConnection connection) {
+        return connection instanceof ConnectionBase ? ((ConnectionBase) connection).channel() : null;
+    }
+}
@@ -19,14 +19,19 @@ import io.gravitee.common.util.LinkedCaseInsensitiveMap;
 import io.gravitee.common.util.MultiValueMap;
 import io.gravitee.gateway.api.http.DefaultHttpHeaders;
 import io.gravitee.gateway.api.http.HttpHeaders;
+import io.netty.util.AsciiString;
 import io.vertx.core.MultiMap;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * * Implements {@link MultiValueMap<String,String>} for backward compatibility due to the changes to Headers in 3.15.
@@ -37,6 +42,11 @@ public class VertxHttpHeaders implements HttpHeaders, MultiValueMap<String, Stri
 
     private final MultiMap headers;
 
+    private Set<String> keySet;
+    private Collection<List<String>> values;
+    private Set<Entry<String, List<String>>> entrySet;
+    private String[] namesTable;
+
     public VertxHttpHeaders(final MultiMap headers) {
         this.headers = headers;
     }
@@ -128,9 +138,20 @@ public class VertxHttpHeaders implements HttpHeaders, MultiValueMap<String, Stri
 
     @Override
     public boolean containsValue(Object value) {
-        return entrySet()
-            .stream()
-            .anyMatch(entry -> value.equals(entry.getValue()));
+        if (!(value instanceof List) || ((List<?>) value).isEmpty()) {
+            return false;
+        }
+
+        // Only gather all the values of the headers whose first value matches
+        final Object firstValue = ((List<?>) value).get(0);
+        final NameIterator names = new NameIterator();
+        while (names.hasNext()) {
+            final String name = names.next();
+            if (firstValue.equals(headers.get(name)) && value.equals(headers.getAll(name))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -191,31 +212,26 @@ public class VertxHttpHeaders implements HttpHeaders, MultiValueMap<String, Stri
 
     @Override
     public Set<String> keySet() {
-        return headers.entries().stream().map(Entry::getKey).collect(Collectors.toSet());
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
     }
 
     @Override
     public Collection<List<String>> values() {
-        return headers
-            .entries()
-            .stream()
-            .collect(Collectors.groupingBy(Entry::getKey))
-            .values()
-            .stream()
-            .map(entries -> entries.stream().map(Entry::getValue).collect(Collectors.toList()))
-            .collect(Collectors.toList());
+        if (values == null) {
+            values = new Values();
+        }
+        return values;
     }
 
     @Override
     public Set<Entry<String, List<String>>> entrySet() {
-        return headers
-            .entries()
-            .stream()
-            .collect(Collectors.groupingBy(Entry::getKey))
-            .entrySet()
-            .stream()
-            .map(entry -> Map.entry(entry.getKey(), entry.getValue().stream().map(Entry::getValue).collect(Collectors.toList())))
-            .collect(Collectors.toSet());
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
     }
 
     @Override
@@ -239,4 +255,246 @@ public class VertxHttpHeaders implements HttpHeaders, MultiValueMap<String, Stri
             set(entry.getKey(), entry.getValue());
         }
     }
+
+    /**
+     * Borrow the table of the distinct names met by an iteration. The table of the last exhausted iteration is reused,
+     * so that iterating the views does not allocate once warmed up; headers are only used from a single event loop.
+     */
+    private String[] borrowNames() {
+        final String[] names = namesTable;
+        namesTable = null;
+        return names != null ? names : new String[16];
+    }
+
+    private void releaseNames(String[] names) {
+        Arrays.fill(names, null);
+        namesTable = names;
+    }
+
+    /**
+     * Iterates over the distinct header names, in insertion order and with the case of their first occurrence, walking
+     * the entries of the underlying {@link MultiMap} once. Names already met are looked up in an open addressing table by
+     * their case-insensitive hash.
+     *
+     * Removing a name through the iterator removes all the values of the header, as the views of
+     * {@link DefaultHttpHeaders} do.
+     */
+    private class NameIterator implements Iterator<String> {
+
+        private final Iterator<Entry<String, String>> entries = headers.iterator();
+        private String[] names = borrowNames();
+        private int count;
+        private String next;
+        private String current;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && names != null) {
+                if (!entries.hasNext()) {
+                    releaseNames(names);
+                    names = null;
+                } else {
+                    final String name = entries.next().getKey();
+                    if (add(name)) {
+                        next = name;
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = null;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            final String removed = current;
+            current = null;
+            // Move to the next name first, so that the underlying iterator does not stand on a removed entry. The
+            // following entries of the removed name are skipped anyway, the name having been met already.
+            hasNext();
+            headers.remove(removed);
+        }
+
+        /**
+         * @return <code>true</code> if the name had not been met yet.
+         */
+        private boolean add(String name) {
+            if ((count + 1) << 1 > names.length) {
+                grow();
+            }
+            final int mask = names.length - 1;
+            int i = AsciiString.hashCode(name) & mask;
+            while (names[i] != null) {
+                if (names[i].equalsIgnoreCase(name)) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            names[i] = name;
+            count++;
+            return true;
+        }
+
+        private void grow() {
+            final String[] previous = names;
+            names = new String[previous.length << 1];
+            count = 0;
+            for (String name : previous) {
+                if (name != null) {
+                    add(name);
+                }
+            }
+        }
+    }
+
+    private int distinctNames() {
+        int count = 0;
+        for (NameIterator names = new NameIterator(); names.hasNext(); names.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Live view of the header names. Headers can be removed through the view, not added.
+     */
+    private class KeySet extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            return new NameIterator();
+        }
+
+        @Override
+        public int size() {
+            return distinctNames();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return headers.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CharSequence && headers.contains((CharSequence) o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            headers.remove((CharSequence) o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            headers.clear();
+        }
+    }
+
+    /**
+     * Live view of the values of each header name, gathered only for the name being visited. Headers can be removed
+     * through the view, not added.
+     */
+    private class Values extends AbstractCollection<List<String>> {
+
+        @Override
+        public Iterator<List<String>> iterator() {
+            final NameIterator names = new NameIterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return names.hasNext();
+                }
+
+                @Override
+                public List<String> next() {
+                    return headers.getAll(names.next());
+                }
+
+                @Override
+                public void remove() {
+                    names.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return distinctNames();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return headers.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            headers.clear();
+        }
+    }
+
+    /**
+     * Live view of the headers grouped by name, values being gathered only for the name being visited. Headers can be
+     * removed through the view, not added, and the entries are immutable: values are set through the map itself.
+     */
+    private class EntrySet extends AbstractSet<Entry<String, List<String>>> {
+
+        @Override
+        public Iterator<Entry<String, List<String>>> iterator() {
+            final NameIterator names = new NameIterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return names.hasNext();
+                }
+
+                @Override
+                public Entry<String, List<String>> next() {
+                    final String name = names.next();
+                    return new AbstractMap.SimpleImmutableEntry<>(name, headers.getAll(name));
+                }
+
+                @Override
+                public void remove() {
+                    names.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return distinctNames();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return headers.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            headers.clear();
+        }
+    }
 }
@@ -18,7 +18,9 @@ package io.gravitee.connector.http.ws;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.connector.api.response.StatusResponse;
 import io.gravitee.connector.http.AbstractHttpConnection;
+import io.gravitee.connector.http.HopByHopHeaders;
 import io.gravitee.connector.http.endpoint.HttpEndpoint;
+import io.gravitee.connector.http.vertx.VertxBuffers;
 import io.gravitee.gateway.api.ExecutionContext;
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.handler.Handler;
@@ -30,10 +32,8 @@ import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.UpgradeRejectedException;
 import io.vertx.core.http.WebSocketClient;
 import io.vertx.core.http.WebSocketConnectOptions;
-import io.vertx.core.internal.buffer.BufferInternal;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import io.vertx.core.http.WebSocketFrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -41,22 +41,6 @@ import java.util.Set;
  */
 public class WebSocketConnection extends AbstractHttpConnection<HttpEndpoint> {
 
-    private static final Set<CharSequence> WS_HOP_HEADERS;
-
-    static {
-        Set<CharSequence> wsHopHeaders = new HashSet<>();
-
-        // Hop-by-hop headers Websocket
-        wsHopHeaders.add(HttpHeaderNames.KEEP_ALIVE);
-        wsHopHeaders.add(HttpHeaderNames.PROXY_AUTHORIZATION);
-        wsHopHeaders.add(HttpHeaderNames.PROXY_AUTHENTICATE);
-        wsHopHeaders.add(HttpHeaderNames.PROXY_CONNECTION);
-        wsHopHeaders.add(HttpHeaderNames.TE);
-        wsHopHeaders.add(HttpHeaderNames.TRAILER);
-
-        WS_HOP_HEADERS = Collections.unmodifiableSet(wsHopHeaders);
-    }
-
     private final WebSocketProxyRequest wsProxyRequest;
 
     public WebSocketConnection(HttpEndpoint endpoint, ProxyRequest request) {
@@ -88,9 +72,11 @@ public class WebSocketConnection extends AbstractHttpConnection<HttpEndpoint> {
         Handler<Void> tracker
     ) {
         // Remove hop-by-hop headers.
-        for (CharSequence header : WS_HOP_HEADERS) {
-            wsProxyRequest.headers().remove(header);
-        }
+        HopByHopHeaders.WEBSOCKET.strip(
+            wsProxyRequest.headers(),
+            endpoint.getHeaders(),
+            endpoint.getHttpClientOptions().isStripConnectionHeaders()
+        );
 
         WebSocketConnectOptions options = new WebSocketConnectOptions().setHost(host).setPort(port).setURI(uri);
 
@@ -113,44 +99,9 @@ public class WebSocketConnection extends AbstractHttpConnection<HttpEndpoint> {
                         .thenAccept(webSocketProxyRequest -> {
                             // From server to client
                             wsProxyRequest.frameHandler(frame -> {
-                                if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.BINARY) {
-                                    event
-                                        .result()
-                                        .writeFrame(
-                                            io.vertx.core.http.WebSocketFrame.binaryFrame(
-                                                BufferInternal.buffer(frame.data().getNativeBuffer()),
-                                                frame.isFinal()
-                                            )
-                                        );
-                                } else if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.TEXT) {
-                                    event
-                                        .result()
-                                        .writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(frame.data().toString(), frame.isFinal()));
-                                } else if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.CONTINUATION) {
-                                    event
-                                        .result()
-                                        .writeFrame(
-                                            io.vertx.core.http.WebSocketFrame.continuationFrame(
-                                                io.vertx.core.buffer.Buffer.buffer(frame.data().toString()),
-                                                frame.isFinal()
-                                            )
-                                        );
-                                } else if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.PING) {
-                                    event
-                                        .result()
-                                        .writeFrame(
-                                            io.vertx.core.http.WebSocketFrame.pingFrame(
-                                                io.vertx.core.buffer.Buffer.buffer(frame.data().toString())
-                                            )
-                                        );
-                                } else if (frame.type() == io.gravitee.gateway.api.ws.WebSocketFrame.Type.PONG) {
-                                    event
-                                        .result()
-                                        .writeFrame(
-                                            io.vertx.core.http.WebSocketFrame.pongFrame(
-                                                io.vertx.core.buffer.Buffer.buffer(frame.data().toString())
-                                            )
-                                        );
+                                io.vertx.core.http.WebSocketFrame upstreamFrame = toUpstreamFrame(frame);
+                                if (upstreamFrame != null) {
+                                    event.result().writeFrame(upstreamFrame);
                                 }
                             });
 
@@ -197,6 +148,30 @@ public class WebSocketConnection extends AbstractHttpConnection<HttpEndpoint> {
             });
     }
 
+    /**
+     * Translate a frame received from the client to a frame for the upstream, sharing the frame payload instead of
+     * decoding / encoding text payloads or copying them.
+     */
+    static io.vertx.core.http.WebSocketFrame toUpstreamFrame(io.gravitee.gateway.api.ws.WebSocketFrame frame) {
+        switch (frame.type()) {
+            case BINARY:
+                return io.vertx.core.http.WebSocketFrame.binaryFrame(VertxBuffers.toVertx(frame.data()), frame.isFinal());
+            case TEXT:
+                // The public factory of text frames only accepts a String: decoding the payload would mangle a character
+                // split across fragments, the bytes are relayed as they are with the (internal) frame constructor
+                return new WebSocketFrameImpl(WebSocketFrameType.TEXT, frame.data().getNativeBuffer().duplicate(), frame.isFinal());
+            case CONTINUATION:
+                return io.vertx.core.http.WebSocketFrame.continuationFrame(VertxBuffers.toVertx(frame.data()), frame.isFinal());
+            case PING:
+                return io.vertx.core.http.WebSocketFrame.pingFrame(VertxBuffers.toVertx(frame.data()));
+            case PONG:
+                return io.vertx.core.http.WebSocketFrame.pongFrame(VertxBuffers.toVertx(frame.data()));
+            default:
+                // Close frames are handled through the close handler
+                return null;
+        }
+    }
+
     @Override
     public WriteStream<Buffer> write(Buffer content) {
         return this;
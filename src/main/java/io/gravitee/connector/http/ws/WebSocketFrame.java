@@ -15,6 +15,7 @@
  */
 package io.gravitee.connector.http.ws;
 
+import io.gravitee.connector.http.vertx.VertxBuffers;
 import io.gravitee.gateway.api.buffer.Buffer;
 import io.vertx.core.http.WebSocketFrameType;
 
@@ -25,6 +26,7 @@ import io.vertx.core.http.WebSocketFrameType;
 public class WebSocketFrame implements io.gravitee.gateway.api.ws.WebSocketFrame {
 
     private final io.vertx.core.http.WebSocketFrame frame;
+    private Buffer data;
 
     WebSocketFrame(io.vertx.core.http.WebSocketFrame frame) {
         this.frame = frame;
@@ -49,7 +51,11 @@ public class WebSocketFrame implements io.gravitee.gateway.api.ws.WebSocketFrame
 
     @Override
     public Buffer data() {
-        return Buffer.buffer(frame.binaryData());
+        if (data == null) {
+            // Share the frame payload, text frames included: their bytes are relayed as is, never decoded
+            data = VertxBuffers.toGateway(frame.binaryData());
+        }
+        return data;
     }
 
     @Override
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AddressBalancerTest {
+
+    private final AddressBalancer cut = new AddressBalancer("api.gravitee.io", 8080, 30000);
+
+    @Test
+    void should_not_select_any_address_until_resolved() {
+        assertThat(cut.select()).isNull();
+    }
+
+    @Test
+    void should_select_least_loaded_address() throws Exception {
+        cut.update(addresses("10.0.0.1", "10.0.0.2"));
+
+        AddressBalancer.UpstreamAddress first = cut.select();
+        AddressBalancer.UpstreamAddress second = cut.select();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(first.socketAddress().host()).isIn("10.0.0.1", "10.0.0.2");
+        assertThat(first.socketAddress().port()).isEqualTo(8080);
+
+        first.release();
+        assertThat(cut.select()).isSameAs(first);
+    }
+
+    @Test
+    void should_spread_requests_evenly() throws Exception {
+        cut.update(addresses("10.0.0.1", "10.0.0.2", "10.0.0.3"));
+
+        for (int i = 0; i < 300; i++) {
+            cut.select();
+        }
+
+        for (AddressBalancer.UpstreamAddress address : cut.addresses()) {
+            assertThat(address.inFlight()).isBetween(90, 110);
+        }
+    }
+
+    @Test
+    void should_not_select_ejected_address() throws Exception {
+        cut.update(addresses("10.0.0.1", "10.0.0.2", "10.0.0.3"));
+        AddressBalancer.UpstreamAddress[] addresses = cut.addresses();
+        addresses[0].eject();
+        addresses[1].eject();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(cut.select()).isSameAs(addresses[2]);
+        }
+    }
+
+    @Test
+    void should_keep_state_of_addresses_still_resolved() throws Exception {
+        cut.update(addresses("10.0.0.1", "10.0.0.2"));
+        AddressBalancer.UpstreamAddress kept = cut.addresses()[1];
+        kept.eject();
+
+        cut.update(addresses("10.0.0.2", "10.0.0.3"));
+
+        assertThat(cut.addresses()).hasSize(2);
+        assertThat(cut.addresses()[0]).isSameAs(kept);
+        assertThat(kept.isEjected()).isTrue();
+        assertThat(cut.addresses()[1].socketAddress().host()).isEqualTo("10.0.0.3");
+    }
+
+    @Test
+    void should_send_requests_to_first_available_address_when_not_balanced() throws Exception {
+        AddressBalancer failover = new AddressBalancer("api.gravitee.io", 8080, 30000, null, false);
+        failover.update(addresses("10.0.0.1", "10.0.0.2", "10.0.0.3"));
+
+        AddressBalancer.UpstreamAddress[] addresses = failover.addresses();
+        for (int i = 0; i < 10; i++) {
+            assertThat(failover.select()).isSameAs(addresses[0]);
+        }
+
+        addresses[0].eject();
+        assertThat(failover.select()).isSameAs(addresses[1]);
+    }
+
+    @Test
+    void should_prefer_family_of_first_resolved_address() throws Exception {
+        cut.update(addresses("2001:db8::1", "10.0.0.1", "2001:db8::2"));
+        AddressBalancer.UpstreamAddress[] addresses = cut.addresses();
+
+        assertThat(cut.isDualStack()).isTrue();
+        for (int i = 0; i < 10; i++) {
+            assertThat(cut.select()).isNotSameAs(addresses[1]);
+        }
+
+        addresses[0].eject();
+        addresses[2].eject();
+        assertThat(cut.select()).isSameAs(addresses[1]);
+    }
+
+    @Test
+    void should_select_address_of_other_family() throws Exception {
+        cut.update(addresses("2001:db8::1", "10.0.0.1", "10.0.0.2"));
+        AddressBalancer.UpstreamAddress[] addresses = cut.addresses();
+        addresses[1].eject();
+
+        assertThat(cut.selectOtherFamily(addresses[0])).isSameAs(addresses[2]);
+        assertThat(addresses[2].inFlight()).isEqualTo(1);
+        assertThat(cut.selectOtherFamily(addresses[2])).isSameAs(addresses[0]);
+
+        addresses[2].eject();
+        assertThat(cut.selectOtherFamily(addresses[0])).isNull();
+    }
+
+    @Test
+    void should_select_other_address_of_same_family() throws Exception {
+        cut.update(addresses("10.0.0.1", "2001:db8::1", "10.0.0.2"));
+        AddressBalancer.UpstreamAddress[] addresses = cut.addresses();
+
+        assertThat(cut.selectOther(addresses[0])).isSameAs(addresses[2]);
+        assertThat(addresses[2].inFlight()).isEqualTo(1);
+
+        // No other available address of the family, the same address is used on another connection
+        addresses[2].eject();
+        assertThat(cut.selectOther(addresses[0])).isSameAs(addresses[0]);
+        assertThat(addresses[0].inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void should_track_connections_open_to_each_address() throws Exception {
+        cut.update(addresses("10.0.0.1", "10.0.0.2"));
+        AddressBalancer.UpstreamAddress[] addresses = cut.addresses();
+        EmbeddedChannel channel = connectedTo("10.0.0.1", 8080);
+
+        cut.connected(channel);
+        cut.connected(connectedTo("10.0.0.1", 8080));
+        cut.connected(connectedTo("10.0.0.2", 9090));
+        assertThat(addresses[0].connections()).isEqualTo(2);
+        assertThat(addresses[1].connections()).isZero();
+
+        channel.close();
+        assertThat(addresses[0].connections()).isEqualTo(1);
+    }
+
+    @Test
+    void should_not_be_dual_stack_with_a_single_family() throws Exception {
+        cut.update(addresses("10.0.0.1", "10.0.0.2"));
+
+        assertThat(cut.isDualStack()).isFalse();
+    }
+
+    @Test
+    void should_retry_failed_lookup_before_refresh_interval() throws Exception {
+        DnsResolver resolver = mock(DnsResolver.class);
+        when(resolver.resolveAll(any(), eq("api.gravitee.io"))).thenReturn(
+            Future.failedFuture(new UnknownHostException("api.gravitee.io")),
+            Future.succeededFuture(addresses("10.0.0.1"))
+        );
+        AddressBalancer balancer = new AddressBalancer("api.gravitee.io", 8080, 60000, resolver, true);
+        Vertx vertx = Vertx.vertx();
+        try {
+            Context context = vertx.getOrCreateContext();
+            assertThat(resolve(context, balancer)).isEmpty();
+            assertThat(resolve(context, balancer)).isEmpty();
+
+            Thread.sleep(AddressBalancer.LOOKUP_RETRY_DELAY + 100);
+
+            assertThat(resolve(context, balancer)).hasSize(1);
+            verify(resolver, times(2)).resolveAll(any(), eq("api.gravitee.io"));
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static AddressBalancer.UpstreamAddress[] resolve(Context context, AddressBalancer balancer) throws Exception {
+        CompletableFuture<AddressBalancer.UpstreamAddress[]> addresses = new CompletableFuture<>();
+        context.runOnContext(v -> balancer.resolve().onComplete(result -> addresses.complete(result.result())));
+        return addresses.get(10, TimeUnit.SECONDS);
+    }
+
+    private static InetAddress[] addresses(String... ips) throws UnknownHostException {
+        InetAddress[] addresses = new InetAddress[ips.length];
+        for (int i = 0; i < ips.length; i++) {
+            addresses[i] = InetAddress.getByName(ips[i]);
+        }
+        return addresses;
+    }
+
+    private static EmbeddedChannel connectedTo(String ip, int port) {
+        return new EmbeddedChannel() {
+            @Override
+            protected SocketAddress remoteAddress0() {
+                return new InetSocketAddress(ip, port);
+            }
+        };
+    }
+}
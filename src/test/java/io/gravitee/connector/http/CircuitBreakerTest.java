@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.connector.http.endpoint.CircuitBreakerOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CircuitBreakerTest {
+
+    private CircuitBreakerOptions options;
+
+    @BeforeEach
+    void setUp() {
+        options = new CircuitBreakerOptions();
+        options.setEnabled(true);
+        options.setWindowSize(10);
+        options.setMinimumCalls(4);
+        options.setPermittedProbes(2);
+    }
+
+    @Test
+    void should_stay_closed_until_minimum_calls() {
+        CircuitBreaker cut = new CircuitBreaker("default", options);
+
+        for (int i = 0; i < 3; i++) {
+            cut.tryAcquire().failed();
+        }
+
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_open_when_failure_rate_reaches_threshold_and_reject_calls() {
+        CircuitBreaker cut = new CircuitBreaker("default", options);
+
+        cut.tryAcquire().succeeded();
+        cut.tryAcquire().succeeded();
+        cut.tryAcquire().failed();
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        cut.tryAcquire().failed();
+
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(cut.tryAcquire()).isNull();
+        assertThat(cut.rejected()).isEqualTo(1);
+        assertThat(cut.transitions(CircuitBreaker.State.OPEN)).isEqualTo(1);
+    }
+
+    @Test
+    void should_only_consider_last_calls_of_the_window() {
+        CircuitBreaker cut = new CircuitBreaker("default", options);
+
+        for (int i = 0; i < 4; i++) {
+            cut.tryAcquire().failed();
+            if (i == 0) {
+                // Push the failures out of the window
+                for (int j = 0; j < 10; j++) {
+                    cut.tryAcquire().succeeded();
+                }
+            }
+        }
+
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void should_open_when_slow_call_rate_reaches_threshold() {
+        options.setSlowCallDuration(0);
+        CircuitBreaker cut = new CircuitBreaker("default", options);
+
+        for (int i = 0; i < 4; i++) {
+            cut.tryAcquire().succeeded();
+        }
+
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void should_let_bounded_probes_through_once_half_open_then_close() {
+        options.setOpenDuration(0);
+        CircuitBreaker cut = open(new CircuitBreaker("default", options));
+
+        CircuitBreaker.Call probe1 = cut.tryAcquire();
+        CircuitBreaker.Call probe2 = cut.tryAcquire();
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(cut.tryAcquire()).isNull();
+
+        probe1.succeeded();
+        probe2.succeeded();
+
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(cut.transitions(CircuitBreaker.State.HALF_OPEN)).isEqualTo(1);
+        assertThat(cut.transitions(CircuitBreaker.State.CLOSED)).isEqualTo(1);
+    }
+
+    @Test
+    void should_open_again_when_probes_fail() {
+        options.setOpenDuration(0);
+        CircuitBreaker cut = open(new CircuitBreaker("default", options));
+
+        cut.tryAcquire().failed();
+
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(cut.transitions(CircuitBreaker.State.OPEN)).isEqualTo(2);
+    }
+
+    @Test
+    void should_let_another_probe_through_when_one_is_released_without_outcome() {
+        options.setOpenDuration(0);
+        CircuitBreaker cut = open(new CircuitBreaker("default", options));
+
+        CircuitBreaker.Call probe1 = cut.tryAcquire();
+        cut.tryAcquire();
+        probe1.release();
+
+        assertThat(cut.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void should_ignore_outcome_of_calls_started_before_state_change() {
+        CircuitBreaker cut = new CircuitBreaker("default", options);
+        CircuitBreaker.Call late = cut.tryAcquire();
+        open(cut);
+
+        late.succeeded();
+
+        assertThat(cut.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void should_export_state_and_transitions_as_meters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CircuitBreaker cut = new CircuitBreaker("default", options);
+        cut.bindTo(new EndpointMeters(registry, "default", "http://localhost:8080"));
+
+        open(cut);
+        cut.tryAcquire();
+
+        assertThat(registry.get("gravitee.connector.http.circuit.state").tags("endpoint", "default", "state", "open").gauge().value())
+            .isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.circuit.state").tags("state", "closed").gauge().value()).isZero();
+        assertThat(registry.get("gravitee.connector.http.circuit.transitions").tags("state", "open").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.circuit.rejected").functionCounter().count()).isEqualTo(1);
+    }
+
+    private CircuitBreaker open(CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquire().failed();
+        }
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void should_reject_requests_over_the_limit() {
+        ConcurrencyLimiter cut = new ConcurrencyLimiter(1, 1);
+
+        ConcurrencyLimiter.Permit permit = cut.tryAcquire();
+
+        assertThat(permit).isNotNull();
+        assertThat(cut.tryAcquire()).isNull();
+        assertThat(cut.rejected()).isEqualTo(1);
+
+        permit.release();
+        permit.release();
+        assertThat(cut.inFlight()).isZero();
+        assertThat(cut.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void should_grow_limit_while_latency_is_stable() {
+        ConcurrencyLimiter cut = new ConcurrencyLimiter(50, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            cut.onSample(RTT, 50);
+        }
+
+        assertThat(cut.limit()).isGreaterThan(50).isLessThanOrEqualTo(1000);
+    }
+
+    @Test
+    void should_not_grow_limit_while_it_is_not_used() {
+        ConcurrencyLimiter cut = new ConcurrencyLimiter(50, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            cut.onSample(RTT, 1);
+        }
+
+        assertThat(cut.limit()).isEqualTo(50);
+    }
+
+    @Test
+    void should_shrink_limit_when_latency_grows() {
+        ConcurrencyLimiter cut = new ConcurrencyLimiter(200, 1000);
+        for (int i = 0; i < 100; i++) {
+            cut.onSample(RTT, 200);
+        }
+        final int limit = cut.limit();
+
+        for (int i = 0; i < 20; i++) {
+            cut.onSample(10 * RTT, limit);
+        }
+
+        assertThat(cut.limit()).isLessThan(limit);
+    }
+
+    @Test
+    void should_shrink_limit_on_dropped_requests_down_to_min_limit() {
+        ConcurrencyLimiter cut = new ConcurrencyLimiter(100, 1000);
+
+        cut.tryAcquire().dropped();
+        assertThat(cut.limit()).isEqualTo(90);
+
+        for (int i = 0; i < 100; i++) {
+            cut.onDropped();
+        }
+        assertThat(cut.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void should_sample_a_request_once() {
+        ConcurrencyLimiter cut = new ConcurrencyLimiter(100, 1000);
+        ConcurrencyLimiter.Permit permit = cut.tryAcquire();
+
+        permit.dropped();
+        permit.dropped();
+        permit.succeeded();
+
+        assertThat(cut.limit()).isEqualTo(90);
+    }
+
+    @Test
+    void should_reject_invalid_max_limit() {
+        assertThatThrownBy(() -> new ConcurrencyLimiter(10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
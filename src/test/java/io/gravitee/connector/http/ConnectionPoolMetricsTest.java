@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.vertx.core.http.HttpConnection;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ConnectionPoolMetricsTest {
+
+    private final ConnectionPoolMetrics cut = new ConnectionPoolMetrics("default", "https://api.gravitee.io");
+
+    @Test
+    void should_track_request_from_pending_to_ended() {
+        ConnectionPoolMetrics.Request request = cut.requestPending();
+        assertThat(cut.pendingRequests()).isEqualTo(1);
+        assertThat(cut.activeRequests()).isZero();
+
+        request.acquired();
+        assertThat(cut.pendingRequests()).isZero();
+        assertThat(cut.activeRequests()).isEqualTo(1);
+        assertThat(cut.averageWaitTime()).isGreaterThanOrEqualTo(0);
+
+        request.ended();
+        request.ended();
+        assertThat(cut.pendingRequests()).isZero();
+        assertThat(cut.activeRequests()).isZero();
+    }
+
+    @Test
+    void should_track_request_ended_while_pending() {
+        ConnectionPoolMetrics.Request request = cut.requestPending();
+
+        request.ended();
+        request.acquired();
+
+        assertThat(cut.pendingRequests()).isZero();
+        assertThat(cut.activeRequests()).isZero();
+    }
+
+    @Test
+    void should_track_rejected_request_once() {
+        ConnectionPoolMetrics.Request request = cut.requestPending();
+        assertThat(request.isRejected()).isFalse();
+
+        request.rejected();
+        request.rejected();
+
+        assertThat(request.isRejected()).isTrue();
+        assertThat(cut.rejectedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void should_track_open_connections() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+
+        cut.connectionCreated(channel);
+        cut.connectionCreated(new EmbeddedChannel());
+        channel.close();
+
+        assertThat(cut.connectionsCreated()).isEqualTo(2);
+        assertThat(cut.connectionsClosed()).isEqualTo(1);
+        assertThat(cut.openConnections()).isEqualTo(1);
+        assertThat(cut.endpoint()).isEqualTo("default");
+        assertThat(cut.target()).isEqualTo("https://api.gravitee.io");
+    }
+
+    @Test
+    void should_leave_close_handler_of_connections_to_the_application() {
+        HttpConnection connection = mock(HttpConnection.class);
+
+        cut.connectionCreated(connection);
+
+        verifyNoInteractions(connection);
+    }
+
+    @Test
+    void should_estimate_idle_connections() {
+        cut.connectionCreated(new EmbeddedChannel());
+        cut.connectionCreated(new EmbeddedChannel());
+        cut.requestPending().acquired();
+        assertThat(cut.idleConnections()).isEqualTo(1);
+
+        cut.requestPending().acquired();
+        cut.requestPending().acquired();
+        assertThat(cut.idleConnections()).isZero();
+    }
+
+    @Test
+    void should_export_meters_tagged_with_endpoint() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cut.bindTo(new EndpointMeters(registry, "default", "http://localhost:8080"));
+
+        cut.connectionCreated(new EmbeddedChannel());
+        cut.requestPending().acquired();
+        cut.requestPending().rejected();
+
+        assertThat(registry.get("gravitee.connector.http.pool.connections.open").tag("endpoint", "default").gauge().value())
+            .isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.pool.active").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.pool.pending").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.pool.connections.idle").gauge().value()).isZero();
+        assertThat(registry.get("gravitee.connector.http.pool.rejected").functionCounter().count()).isEqualTo(1);
+        FunctionTimer wait = registry.get("gravitee.connector.http.pool.wait").functionTimer();
+        assertThat(wait.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.net.SocketAddress;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ConnectionWarmUpTest {
+
+    private Vertx vertx;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient(new HttpClientOptions(), new PoolOptions().setHttp1MaxSize(10));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void should_open_connections_with_server_wide_options_requests() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        List<String> requests = new CopyOnWriteArrayList<>();
+        HttpServer server = startServer(connections, requests);
+        MultiMap headers = HttpHeaders.headers().add("X-Api-Key", "secret");
+
+        Integer opened = warmUp(HttpTarget.parse("http://localhost:" + server.actualPort() + "/echo"), List.of(), headers, 3, false);
+
+        assertThat(opened).isEqualTo(3);
+        assertThat(connections).hasValue(3);
+        assertThat(requests).containsOnly(HttpMethod.OPTIONS + " * secret").hasSize(3);
+    }
+
+    @Test
+    void should_warm_up_the_pool_of_each_server_address() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        HttpServer server = startServer(connections, new CopyOnWriteArrayList<>());
+        List<SocketAddress> servers = List.of(
+            SocketAddress.inetSocketAddress(server.actualPort(), "127.0.0.1"),
+            SocketAddress.inetSocketAddress(server.actualPort(), "127.0.0.2")
+        );
+
+        Integer opened = warmUp(HttpTarget.parse("http://localhost:" + server.actualPort()), servers, HttpHeaders.headers(), 2, false);
+
+        assertThat(opened).isEqualTo(4);
+        assertThat(connections).hasValue(4);
+    }
+
+    @Test
+    void should_open_a_single_connection_when_multiplexed() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        HttpServer server = startServer(connections, new CopyOnWriteArrayList<>());
+
+        Integer opened = warmUp(HttpTarget.parse("http://localhost:" + server.actualPort()), List.of(), HttpHeaders.headers(), 3, true);
+
+        assertThat(opened).isEqualTo(1);
+        assertThat(connections).hasValue(1);
+    }
+
+    @Test
+    void should_not_fail_when_backend_is_down() throws Exception {
+        Integer opened = warmUp(HttpTarget.parse("http://localhost:" + availablePort()), List.of(), HttpHeaders.headers(), 2, false);
+
+        assertThat(opened).isZero();
+    }
+
+    private HttpServer startServer(AtomicInteger connections, List<String> requests) throws Exception {
+        return vertx
+            .createHttpServer()
+            .connectionHandler(connection -> connections.incrementAndGet())
+            .requestHandler(request -> {
+                requests.add(request.method() + " " + request.uri() + " " + request.getHeader("X-Api-Key"));
+                // Answer late enough for the warm-up requests to be concurrent
+                vertx.setTimer(50, id -> request.response().setStatusCode(404).end());
+            })
+            .listen(0)
+            .toCompletionStage()
+            .toCompletableFuture()
+            .get(10, TimeUnit.SECONDS);
+    }
+
+    private Integer warmUp(HttpTarget target, List<SocketAddress> servers, MultiMap headers, int connections, boolean multiplexed)
+        throws Exception {
+        return ConnectionWarmUp
+            .warmUp(client, "default", target, servers, headers, connections, multiplexed, 5000)
+            .toCompletionStage()
+            .toCompletableFuture()
+            .get(10, TimeUnit.SECONDS);
+    }
+
+    private int availablePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.connector.http.endpoint.DnsResolverOptions;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DnsResolverTest {
+
+    private final EventLoop loop = new DefaultEventLoop();
+
+    @AfterEach
+    void tearDown() {
+        loop.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void should_cache_addresses() throws Exception {
+        DnsResolver cut = new DnsResolver(new DnsResolverOptions());
+
+        assertThat(cut.cache().get("api.gravitee.io.", null)).isNull();
+        cut.cache().cache("api.gravitee.io.", null, InetAddress.getByName("10.0.0.1"), 60, loop);
+
+        assertThat(cut.cache().get("api.gravitee.io.", null))
+            .singleElement()
+            .satisfies(entry -> assertThat(entry.address()).isEqualTo(InetAddress.getByName("10.0.0.1")));
+        cut.cache().get("api.gravitee.io.", null);
+        assertThat(cut.cacheHits()).isEqualTo(2);
+        assertThat(cut.cacheMisses()).isEqualTo(1);
+        assertThat(cut.cacheHitRate()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void should_not_cache_failures_by_default() {
+        DnsResolver cut = new DnsResolver(new DnsResolverOptions());
+
+        cut.cache().cache("unknown.gravitee.io.", null, new UnknownHostException(), loop);
+
+        assertThat(cut.cache().get("unknown.gravitee.io.", null)).isNull();
+    }
+
+    @Test
+    void should_cache_failures_for_negative_ttl() {
+        DnsResolverOptions options = new DnsResolverOptions();
+        options.setNegativeTtl(10);
+        DnsResolver cut = new DnsResolver(options);
+
+        cut.cache().cache("unknown.gravitee.io.", null, new UnknownHostException(), loop);
+
+        assertThat(cut.cache().get("unknown.gravitee.io.", null)).singleElement().satisfies(entry -> assertThat(entry.cause()).isNotNull());
+    }
+
+    @Test
+    void should_not_cache_addresses_when_max_ttl_is_zero() throws Exception {
+        DnsResolverOptions options = new DnsResolverOptions();
+        options.setMaxTtl(0);
+        DnsResolver cut = new DnsResolver(options);
+
+        cut.cache().cache("api.gravitee.io.", null, InetAddress.getByName("10.0.0.1"), 60, loop);
+
+        assertThat(cut.cache().get("api.gravitee.io.", null)).isNull();
+    }
+
+    @Test
+    void should_export_lookup_and_cache_meters() throws Exception {
+        DnsResolver cut = new DnsResolver(new DnsResolverOptions());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cut.bindTo(new EndpointMeters(registry, "default", "http://api.gravitee.io"));
+
+        cut.onLookup(TimeUnit.MILLISECONDS.toNanos(2), true);
+        cut.onLookup(TimeUnit.MILLISECONDS.toNanos(4), false);
+        cut.cache().get("api.gravitee.io.", null);
+        cut.cache().cache("api.gravitee.io.", null, InetAddress.getByName("10.0.0.1"), 60, loop);
+        cut.cache().get("api.gravitee.io.", null);
+
+        FunctionTimer lookups = registry.get("gravitee.connector.http.dns.lookups").tag("endpoint", "default").functionTimer();
+        assertThat(lookups.count()).isEqualTo(2);
+        assertThat(lookups.mean(TimeUnit.MILLISECONDS)).isEqualTo(3.0);
+        assertThat(registry.get("gravitee.connector.http.dns.lookup.failures").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.dns.cache.hits").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.dns.cache.misses").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.dns.cache.hit.rate").gauge().value()).isEqualTo(0.5);
+    }
+}
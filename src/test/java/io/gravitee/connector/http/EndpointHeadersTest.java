@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.common.http.HttpHeader;
+import io.gravitee.connector.http.vertx.VertxHttpHeaders;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EndpointHeadersTest {
+
+    @Test
+    void should_be_empty_without_configured_headers() {
+        assertThat(EndpointHeaders.compile(null).isEmpty()).isTrue();
+        assertThat(EndpointHeaders.compile(List.of()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void should_override_request_headers() {
+        VertxHttpHeaders headers = new VertxHttpHeaders(io.vertx.core.http.HttpHeaders.headers());
+        headers.add("X-Tenant", "client");
+        headers.add("X-Tenant", "other");
+
+        EndpointHeaders.compile(List.of(new HttpHeader("X-Tenant", "acme"), new HttpHeader("X-Route", "eu"))).applyTo(headers);
+
+        assertThat(headers.getAll("X-Tenant")).containsExactly("acme");
+        assertThat(headers.get("X-Route")).isEqualTo("eu");
+    }
+
+    @Test
+    void should_keep_last_value_of_headers_configured_several_times() {
+        VertxHttpHeaders headers = new VertxHttpHeaders(io.vertx.core.http.HttpHeaders.headers());
+
+        EndpointHeaders
+            .compile(
+                Arrays.asList(new HttpHeader("X-Tenant", "first"), new HttpHeader("X-Route", "eu"), new HttpHeader("x-tenant", "last"))
+            )
+            .applyTo(headers);
+
+        assertThat(headers.getAll("X-Tenant")).containsExactly("last");
+        assertThat(headers.keySet()).containsExactly("X-Route", "x-tenant");
+    }
+
+    @Test
+    void should_match_configured_names_ignoring_case() {
+        EndpointHeaders endpointHeaders = EndpointHeaders.compile(List.of(new HttpHeader("X-Tenant", "acme")));
+
+        assertThat(endpointHeaders.contains("x-tenant")).isTrue();
+        assertThat(endpointHeaders.contains("X-Route")).isFalse();
+    }
+}
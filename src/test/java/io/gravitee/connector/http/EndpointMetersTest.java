@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EndpointMetersTest {
+
+    @Test
+    void should_register_meters_tagged_with_endpoint() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EndpointMeters cut = new EndpointMeters(registry, "default", "http://localhost:8080");
+        AtomicInteger value = new AtomicInteger(3);
+
+        cut.gauge("test.gauge", Tags.of("state", "open"), "A gauge", value, AtomicInteger::get);
+        cut.counter("test.counter", "A counter", value, AtomicInteger::get);
+
+        assertThat(cut.isEnabled()).isTrue();
+        assertThat(registry.get("gravitee.connector.http.test.gauge").tags("endpoint", "default", "state", "open").gauge().value())
+            .isEqualTo(3);
+        assertThat(registry.get("gravitee.connector.http.test.counter").tags(cut.tags()).functionCounter().count()).isEqualTo(3);
+        assertThat(cut.tags()).contains(Tag.of("endpoint", "default"), Tag.of("target", "http://localhost:8080"));
+    }
+
+    @Test
+    void should_register_meters_of_connectors_sharing_endpoint_name() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EndpointMeters first = new EndpointMeters(registry, "default", "http://localhost:8080");
+        EndpointMeters second = new EndpointMeters(registry, "default", "http://localhost:8080");
+
+        first.gauge("test.gauge", "A gauge", new AtomicInteger(1), AtomicInteger::get);
+        second.gauge("test.gauge", "A gauge", new AtomicInteger(2), AtomicInteger::get);
+
+        assertThat(first.tags()).isNotEqualTo(second.tags());
+        assertThat(registry.get("gravitee.connector.http.test.gauge").tags(first.tags()).gauge().value()).isEqualTo(1);
+        assertThat(registry.get("gravitee.connector.http.test.gauge").tags(second.tags()).gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void should_only_remove_its_own_meters_when_closed() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EndpointMeters first = new EndpointMeters(registry, "default", "http://localhost:8080");
+        EndpointMeters second = new EndpointMeters(registry, "default", "http://localhost:8080");
+        first.gauge("test.gauge", "A gauge", new AtomicInteger(1), AtomicInteger::get);
+        second.gauge("test.gauge", "A gauge", new AtomicInteger(2), AtomicInteger::get);
+
+        first.close();
+
+        assertThat(registry.find("gravitee.connector.http.test.gauge").tags(first.tags()).gauge()).isNull();
+        assertThat(registry.get("gravitee.connector.http.test.gauge").tags(second.tags()).gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void should_remove_meters_when_closed() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        EndpointMeters cut = new EndpointMeters(registry, "default", "http://localhost:8080");
+        cut.gauge("test.gauge", "A gauge", new AtomicInteger(), AtomicInteger::get);
+
+        cut.close();
+
+        assertThat(registry.getMeters()).isEmpty();
+    }
+
+    @Test
+    void should_not_register_anything_without_registry() {
+        EndpointMeters cut = new EndpointMeters(null, "default", "http://localhost:8080");
+
+        cut.gauge("test.gauge", "A gauge", new AtomicInteger(), AtomicInteger::get);
+        cut.close();
+
+        assertThat(cut.isEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EventLoopClientsTest {
+
+    private Vertx vertx;
+    private AtomicInteger created;
+    private List<Object> closed;
+    private EventLoopClients<Object> cut;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+        created = new AtomicInteger();
+        closed = new CopyOnWriteArrayList<>();
+        cut = new EventLoopClients<>(owner -> "client-" + created.incrementAndGet(), closed::add);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void should_create_one_client_per_event_loop() throws Exception {
+        // Each deployment gets its own context, contexts being assigned to the 2 event loops in turn
+        List<Object> clients = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            deploy(() -> {
+                Object client = cut.get();
+                assertThat(cut.get()).isSameAs(client);
+                clients.add(client);
+            });
+        }
+
+        assertThat(clients).hasSize(4);
+        assertThat(clients.stream().distinct()).hasSize(2);
+        assertThat(created).hasValue(2);
+        assertThat(cut.size()).isEqualTo(2);
+    }
+
+    @Test
+    void should_use_a_single_client_when_shared_across_event_loops() throws Exception {
+        cut.shareAcrossEventLoops(true);
+
+        List<Object> clients = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            deploy(() -> clients.add(cut.get()));
+        }
+
+        assertThat(clients.stream().distinct()).hasSize(1);
+        assertThat(cut.get()).isSameAs(clients.get(0));
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void should_notify_clients_created_for_event_loops() throws Exception {
+        List<Object> notified = new CopyOnWriteArrayList<>();
+        cut.onEventLoopClient(notified::add);
+
+        List<Object> clients = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            deploy(() -> clients.add(cut.get()));
+        }
+        // The client shared outside of event loops doesn't serve them
+        cut.get();
+
+        assertThat(notified).containsExactlyInAnyOrderElementsOf(clients.stream().distinct().toList());
+    }
+
+    @Test
+    void should_notify_shared_client_when_shared_across_event_loops() throws Exception {
+        List<Object> notified = new CopyOnWriteArrayList<>();
+        cut.onEventLoopClient(notified::add);
+        cut.shareAcrossEventLoops(true);
+
+        deploy(() -> cut.get());
+        deploy(() -> cut.get());
+
+        assertThat(notified).containsExactly("client-1");
+    }
+
+    @Test
+    void should_fail_outside_vertx_context_when_no_vertx_instance_is_known() {
+        assertThatThrownBy(() -> cut.get()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void should_share_a_client_outside_vertx_context() throws Exception {
+        List<Object> clients = new CopyOnWriteArrayList<>();
+        deploy(() -> clients.add(cut.get()));
+        Object eventLoopClient = clients.get(0);
+
+        Object sharedClient = cut.get();
+
+        assertThat(sharedClient).isNotSameAs(eventLoopClient);
+        assertThat(cut.get()).isSameAs(sharedClient);
+    }
+
+    @Test
+    void should_evict_client_when_its_context_is_closed() throws Exception {
+        String deploymentId = deploy(() -> cut.get());
+
+        assertThat(cut.size()).isEqualTo(1);
+
+        vertx.undeploy(deploymentId).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertThat(cut.size()).isZero();
+    }
+
+    @Test
+    void should_close_all_clients() throws Exception {
+        List<Object> clients = new CopyOnWriteArrayList<>();
+        deploy(() -> clients.add(cut.get()));
+        deploy(() -> clients.add(cut.get()));
+
+        cut.close();
+
+        assertThat(closed).containsExactlyInAnyOrderElementsOf(clients);
+        assertThat(cut.size()).isZero();
+    }
+
+    @Test
+    void should_apply_action_to_all_clients() throws Exception {
+        List<Object> clients = new CopyOnWriteArrayList<>();
+        deploy(() -> clients.add(cut.get()));
+        deploy(() -> clients.add(cut.get()));
+        clients.add(cut.get());
+
+        List<Object> visited = new CopyOnWriteArrayList<>();
+        cut.forEach(visited::add);
+
+        assertThat(visited).containsExactlyInAnyOrderElementsOf(clients);
+        assertThat(cut.vertx()).isSameAs(vertx);
+    }
+
+    private String deploy(Runnable onStart) throws Exception {
+        return vertx
+            .deployVerticle(
+                new AbstractVerticle() {
+                    @Override
+                    public void start() {
+                        onStart.run();
+                    }
+                }
+            )
+            .toCompletionStage()
+            .toCompletableFuture()
+            .get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.common.http.HttpHeader;
+import io.gravitee.gateway.api.http.HttpHeaders;
+import java.util.List;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class HopByHopHeadersTest {
+
+    @Test
+    void should_strip_hop_by_hop_headers_ignoring_case() {
+        HttpHeaders headers = HttpHeaders.create();
+        headers.add("connection", "keep-alive");
+        headers.add("Keep-Alive", "timeout=5");
+        headers.add("PROXY-AUTHORIZATION", "Basic dXNlcjpwYXNz");
+        headers.add("TE", "trailers");
+        headers.add("Accept", "application/json");
+
+        HopByHopHeaders.HTTP.strip(headers, List.of(), false);
+
+        assertThat(headers.names()).containsExactly("Accept");
+    }
+
+    @Test
+    void should_strip_headers_listed_in_connection_header() {
+        HttpHeaders headers = HttpHeaders.create();
+        headers.add("Connection", "close, X-Trace-Hop ,X-Forwarded-Hop");
+        headers.add("Connection", "X-Other-Hop");
+        headers.add("X-Trace-Hop", "1");
+        headers.add("X-Forwarded-Hop", "2");
+        headers.add("X-Other-Hop", "3");
+        headers.add("X-Kept", "4");
+
+        HopByHopHeaders.HTTP.strip(headers, List.of(), true);
+
+        assertThat(headers.names()).containsExactly("X-Kept");
+    }
+
+    @Test
+    void should_not_strip_headers_listed_in_connection_header_by_default() {
+        HttpHeaders headers = HttpHeaders.create();
+        headers.add("Connection", "close, Authorization");
+        headers.add("Authorization", "Bearer set-by-policy");
+        headers.add("Keep-Alive", "timeout=5");
+
+        HopByHopHeaders.HTTP.strip(headers, List.of(), false);
+
+        assertThat(headers.names()).containsExactly("Authorization");
+    }
+
+    @Test
+    void should_not_strip_host_nor_endpoint_headers_listed_in_connection_header() {
+        HttpHeaders headers = HttpHeaders.create();
+        headers.add("Connection", "Host, X-Tenant");
+        headers.add("Host", "api.gravitee.io");
+        headers.add("X-Tenant", "acme");
+
+        HopByHopHeaders.HTTP.strip(headers, List.of(new HttpHeader("x-tenant", "acme")), true);
+
+        assertThat(headers.names()).containsExactlyInAnyOrder("Host", "X-Tenant");
+    }
+
+    @Test
+    void should_not_strip_gateway_headers_listed_in_connection_header() {
+        HttpHeaders headers = HttpHeaders.create();
+        headers.add("Connection", "X-Forwarded-For, traceparent, X-Gravitee-Transaction-Id, Content-Length, X-Hop");
+        headers.add("X-Forwarded-For", "10.0.0.1");
+        headers.add("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        headers.add("X-Gravitee-Transaction-Id", "a1b2c3");
+        headers.add("Content-Length", "12");
+        headers.add("X-Hop", "1");
+
+        HopByHopHeaders.HTTP.strip(headers, List.of(), true);
+
+        assertThat(headers.names())
+            .containsExactlyInAnyOrder("X-Forwarded-For", "traceparent", "X-Gravitee-Transaction-Id", "Content-Length");
+        assertThat(headers.get("X-Forwarded-For")).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void should_keep_websocket_handshake_headers() {
+        HttpHeaders headers = HttpHeaders.create();
+        headers.add("Connection", "Upgrade, X-Hop");
+        headers.add("Upgrade", "websocket");
+        headers.add("X-Hop", "1");
+        headers.add("Keep-Alive", "timeout=5");
+
+        HopByHopHeaders.WEBSOCKET.strip(headers, null, true);
+
+        assertThat(headers.names()).containsExactlyInAnyOrder("Connection", "Upgrade");
+    }
+}
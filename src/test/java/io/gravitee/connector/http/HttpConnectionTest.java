@@ -19,10 +19,18 @@ import static io.gravitee.common.http.HttpHeaders.ACCEPT_ENCODING;
 import static io.gravitee.common.http.HttpHeaders.CONTENT_LENGTH;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.gravitee.common.component.Lifecycle;
 import io.gravitee.common.http.HttpMethod;
+import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.connector.api.Response;
 import io.gravitee.connector.http.endpoint.HttpClientOptions;
 import io.gravitee.connector.http.endpoint.HttpEndpoint;
 import io.gravitee.connector.http.stub.DummyHttpClientRequest;
@@ -36,20 +44,43 @@ import io.gravitee.node.api.opentelemetry.http.ObservableHttpClientRequest;
 import io.gravitee.node.opentelemetry.tracer.OpenTelemetryTracer;
 import io.gravitee.node.opentelemetry.tracer.noop.NoOpTracer;
 import io.gravitee.reporter.api.http.Metrics;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.ConnectionPoolTooBusyException;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpClosedException;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.http.StreamResetException;
+import io.vertx.core.net.Address;
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -137,6 +168,18 @@ public class HttpConnectionTest {
         assertThat(httpClientRequest.headers().getAll(FIRST_HEADER)).hasSize(2).containsExactly(FIRST_HEADER_VALUE_1, FIRST_HEADER_VALUE_2);
     }
 
+    @Test
+    public void should_override_upstream_headers_keeping_values_order() {
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> new AtomicInteger(1).decrementAndGet());
+        httpClientRequest.headers().add(FIRST_HEADER, "preset-value");
+        httpClientRequest.headers().add("Preset-Header", "preset-value");
+
+        cut.writeUpstreamHeaders();
+
+        assertThat(httpClientRequest.headers().getAll(FIRST_HEADER)).containsExactly(FIRST_HEADER_VALUE_1, FIRST_HEADER_VALUE_2);
+        assertThat(httpClientRequest.headers().getAll("Preset-Header")).containsExactly("preset-value");
+    }
+
     @Test
     public void should_write_upstream_headers_with_tracing_headers() {
         when(context.getTracer()).thenReturn(new Tracer(null, new DummyTracer()));
@@ -251,6 +294,489 @@ public class HttpConnectionTest {
         );
     }
 
+    @Test
+    public void should_reject_request_with_503_when_pool_wait_queue_is_full() {
+        final Metrics requestMetrics = Metrics.on(System.currentTimeMillis()).build();
+        when(request.metrics()).thenReturn(requestMetrics);
+        when(client.request(any())).thenReturn(
+            Future.failedFuture(new ConnectionPoolTooBusyException("Connection pool reached max wait queue size of 10"))
+        );
+        final ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics("default", "http://host.fr");
+        final AtomicReference<Response> response = new AtomicReference<>();
+        cut.pooledRequest(poolMetrics.requestPending());
+        cut.responseHandler(response::set);
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> new AtomicInteger(1).decrementAndGet());
+
+        assertThat(response.get().status()).isEqualTo(HttpStatusCode.SERVICE_UNAVAILABLE_503);
+        assertThat(poolMetrics.rejectedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_use_first_response_of_hedged_request_and_reset_the_other() {
+        httpClientOptions.setHedgingDelay(100);
+        cut.retryBudget(new RetryBudget(10));
+        final Tracer tracer = spy(new Tracer(null, new NoOpTracer()));
+        when(context.getTracer()).thenReturn(tracer);
+        final Promise<HttpClientResponse> firstResponse = Promise.promise();
+        final Promise<HttpClientResponse> hedgedResponse = Promise.promise();
+        final HttpClientRequest first = mockClientRequest(firstResponse);
+        final HttpClientRequest hedged = mockClientRequest(hedgedResponse);
+        when(client.request(any())).thenReturn(Future.succeededFuture(first), Future.succeededFuture(hedged));
+        final AtomicReference<Response> response = new AtomicReference<>();
+        cut.responseHandler(response::set);
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        cut.end();
+        cut.hedge();
+
+        assertThat(hedged.headers().getAll(FIRST_HEADER)).containsExactly(FIRST_HEADER_VALUE_1, FIRST_HEADER_VALUE_2);
+        verify(hedged).end();
+
+        hedgedResponse.complete(mockClientResponse(HttpStatusCode.OK_200));
+        firstResponse.complete(mockClientResponse(HttpStatusCode.INTERNAL_SERVER_ERROR_500));
+
+        assertThat(response.get().status()).isEqualTo(HttpStatusCode.OK_200);
+        verify(first).reset();
+        verify(hedged, never()).reset();
+
+        // The reset of the loser fails it, which must not be reported as a failure of the request
+        final ArgumentCaptor<Handler<Throwable>> exceptionHandler = ArgumentCaptor.forClass(Handler.class);
+        verify(first).exceptionHandler(exceptionHandler.capture());
+        exceptionHandler.getValue().handle(new StreamResetException(0));
+        verify(tracer, never()).endOnError(any(), any(Throwable.class));
+    }
+
+    @Test
+    public void should_ignore_failure_of_hedged_request() {
+        httpClientOptions.setHedgingDelay(100);
+        cut.retryBudget(new RetryBudget(10));
+        final Promise<HttpClientResponse> firstResponse = Promise.promise();
+        final Promise<HttpClientResponse> hedgedResponse = Promise.promise();
+        final HttpClientRequest first = mockClientRequest(firstResponse);
+        final HttpClientRequest hedged = mockClientRequest(hedgedResponse);
+        when(client.request(any())).thenReturn(Future.succeededFuture(first), Future.succeededFuture(hedged));
+        final AtomicReference<Response> response = new AtomicReference<>();
+        cut.responseHandler(response::set);
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        cut.end();
+        cut.hedge();
+
+        hedgedResponse.fail(new IOException("Connection reset"));
+        assertThat(response.get()).isNull();
+
+        firstResponse.complete(mockClientResponse(HttpStatusCode.OK_200));
+        assertThat(response.get().status()).isEqualTo(HttpStatusCode.OK_200);
+        verify(first, never()).reset();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_use_response_of_hedged_request_when_first_request_fails() {
+        httpClientOptions.setHedgingDelay(100);
+        cut.retryBudget(new RetryBudget(10));
+        final Promise<HttpClientResponse> firstResponse = Promise.promise();
+        final Promise<HttpClientResponse> hedgedResponse = Promise.promise();
+        final HttpClientRequest first = mockClientRequest(firstResponse);
+        final HttpClientRequest hedged = mockClientRequest(hedgedResponse);
+        when(client.request(any())).thenReturn(Future.succeededFuture(first), Future.succeededFuture(hedged));
+        final AtomicReference<Response> response = new AtomicReference<>();
+        cut.responseHandler(response::set);
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        cut.end();
+        cut.hedge();
+
+        final ArgumentCaptor<Handler<Throwable>> exceptionHandler = ArgumentCaptor.forClass(Handler.class);
+        verify(first).exceptionHandler(exceptionHandler.capture());
+        exceptionHandler.getValue().handle(new IOException("Connection reset"));
+        firstResponse.fail(new IOException("Connection reset"));
+        assertThat(response.get()).isNull();
+
+        hedgedResponse.complete(mockClientResponse(HttpStatusCode.OK_200));
+        assertThat(response.get().status()).isEqualTo(HttpStatusCode.OK_200);
+        verify(hedged, never()).reset();
+    }
+
+    @Test
+    public void should_prepare_hedged_request_for_another_address_and_release_it() throws Exception {
+        httpClientOptions.setHedgingDelay(100);
+        cut.retryBudget(new RetryBudget(10));
+        final ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics("default", "http://host.fr");
+        cut.poolMetrics(poolMetrics);
+        final AddressBalancer addressBalancer = new AddressBalancer("host", 8080, 30000, null, false);
+        addressBalancer.update(new InetAddress[] { InetAddress.getByName("10.0.0.1"), InetAddress.getByName("10.0.0.2") });
+        cut.addressBalancer(addressBalancer);
+        final AddressBalancer.UpstreamAddress[] addresses = addressBalancer.addresses();
+        final Promise<HttpClientResponse> firstResponse = Promise.promise();
+        final HttpClientRequest first = mockClientRequest(firstResponse);
+        final HttpClientRequest hedged = mockClientRequest(Promise.promise());
+        final List<Address> servers = new ArrayList<>();
+        when(client.request(any())).thenAnswer(invocation -> {
+            servers.add(invocation.<RequestOptions>getArgument(0).getServer());
+            return Future.succeededFuture(servers.size() == 1 ? first : hedged);
+        });
+
+        cut.connect(context, client, 8080, "host", "/", unused -> {}, result -> {});
+        cut.end();
+        cut.hedge();
+
+        assertThat(servers).containsExactly(addresses[0].socketAddress(), addresses[1].socketAddress());
+        assertThat(addresses[1].inFlight()).isEqualTo(1);
+        assertThat(poolMetrics.activeRequests()).isEqualTo(1);
+
+        firstResponse.complete(mockClientResponse(HttpStatusCode.OK_200));
+
+        verify(hedged).reset();
+        assertThat(addresses[1].inFlight()).isZero();
+        assertThat(poolMetrics.activeRequests()).isZero();
+    }
+
+    @Test
+    public void should_not_hedge_request_already_responded() {
+        httpClientOptions.setHedgingDelay(100);
+        final Promise<HttpClientResponse> firstResponse = Promise.promise();
+        final HttpClientRequest first = mockClientRequest(firstResponse);
+        when(client.request(any())).thenReturn(Future.succeededFuture(first));
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        cut.end();
+        firstResponse.complete(mockClientResponse(HttpStatusCode.OK_200));
+        cut.hedge();
+
+        verify(client).request(any());
+    }
+
+    @Test
+    public void should_not_hedge_request_without_retry_budget() {
+        httpClientOptions.setHedgingDelay(100);
+        final RetryBudget retryBudget = new RetryBudget(0);
+        while (retryBudget.tryRetry()) {
+            // Exhaust the budget
+        }
+        cut.retryBudget(retryBudget);
+        when(client.request(any())).thenReturn(Future.succeededFuture(mockClientRequest(Promise.promise())));
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        cut.end();
+        cut.hedge();
+
+        verify(client).request(any());
+    }
+
+    @Test
+    public void should_count_hedged_request_against_concurrency_limit() {
+        httpClientOptions.setHedgingDelay(100);
+        cut.retryBudget(new RetryBudget(10));
+        final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(2, 2);
+        cut.concurrencyLimiter(concurrencyLimiter);
+        final Promise<HttpClientResponse> firstResponse = Promise.promise();
+        final HttpClientRequest first = mockClientRequest(firstResponse);
+        final HttpClientRequest hedged = mockClientRequest(Promise.promise());
+        when(client.request(any())).thenReturn(Future.succeededFuture(first), Future.succeededFuture(hedged));
+
+        final ConcurrencyLimiter.Permit permit = concurrencyLimiter.tryAcquire();
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        cut.end();
+        cut.hedge();
+        assertThat(concurrencyLimiter.inFlight()).isEqualTo(2);
+
+        firstResponse.complete(mockClientResponse(HttpStatusCode.OK_200));
+        assertThat(concurrencyLimiter.inFlight()).isEqualTo(1);
+        verify(hedged).reset();
+
+        // No permit left for another hedged request
+        final ConcurrencyLimiter.Permit other = concurrencyLimiter.tryAcquire();
+        final HttpConnection<HttpResponse> late = new HttpConnection<>(endpoint, request);
+        late.retryBudget(new RetryBudget(10));
+        late.concurrencyLimiter(concurrencyLimiter);
+        late.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        late.end();
+        late.hedge();
+
+        verify(client, times(3)).request(any());
+        permit.release();
+        other.release();
+    }
+
+    @Test
+    public void should_retry_request_when_connection_cannot_be_established() {
+        httpClientOptions.setMaxConnectRetries(2);
+        cut.retryBudget(new RetryBudget(10));
+        when(client.request(any())).thenReturn(
+            Future.failedFuture(new ConnectException("Connection refused")),
+            Future.failedFuture(new ConnectException("Connection refused")),
+            Future.succeededFuture(httpClientRequest)
+        );
+        final AtomicInteger connected = new AtomicInteger();
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> connected.incrementAndGet(), result -> {});
+
+        verify(client, times(3)).request(any());
+        assertThat(connected.get()).isEqualTo(1);
+        assertThat(cut.httpClientRequest).isSameAs(httpClientRequest);
+    }
+
+    @Test
+    public void should_fail_request_when_connect_retries_are_exhausted() {
+        when(request.metrics()).thenReturn(Metrics.on(System.currentTimeMillis()).build());
+        httpClientOptions.setMaxConnectRetries(1);
+        final RetryBudget retryBudget = new RetryBudget(10);
+        cut.retryBudget(retryBudget);
+        when(client.request(any())).thenReturn(Future.failedFuture(new ConnectException("Connection refused")));
+        final AtomicReference<Response> response = new AtomicReference<>();
+        cut.responseHandler(response::set);
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+
+        verify(client, times(2)).request(any());
+        assertThat(retryBudget.retries()).isEqualTo(1);
+        assertThat(response.get().status()).isEqualTo(HttpStatusCode.BAD_GATEWAY_502);
+    }
+
+    @Test
+    public void should_not_retry_request_when_connection_timed_out() {
+        when(request.metrics()).thenReturn(Metrics.on(System.currentTimeMillis()).build());
+        httpClientOptions.setMaxConnectRetries(2);
+        final RetryBudget retryBudget = new RetryBudget(10);
+        cut.retryBudget(retryBudget);
+        when(client.request(any())).thenReturn(Future.failedFuture(new ConnectTimeoutException("connection timed out")));
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+
+        verify(client).request(any());
+        assertThat(retryBudget.retries()).isZero();
+    }
+
+    @Test
+    public void should_retry_idempotent_request_sent_on_stale_connection() {
+        httpClientOptions.setMaxConnectRetries(1);
+        cut.retryBudget(new RetryBudget(10));
+        final Promise<HttpClientResponse> staleResponse = Promise.promise();
+        final Promise<HttpClientResponse> retryResponse = Promise.promise();
+        final HttpClientRequest stale = mockClientRequest(staleResponse);
+        final HttpClientRequest retry = mockClientRequest(retryResponse);
+        when(client.request(any())).thenReturn(Future.succeededFuture(stale), Future.succeededFuture(retry));
+        final AtomicReference<Response> response = new AtomicReference<>();
+        cut.responseHandler(response::set);
+
+        cut.connect(context, client, getAvailablePort(), "host", "/", unused -> {}, result -> {});
+        cut.end();
+        staleResponse.fail(new HttpClosedException("Connection was closed"));
+
+        verify(retry).end();
+        assertThat(retry.headers().getAll(FIRST_HEADER)).containsExactly(FIRST_HEADER_VALUE_1, FIRST_HEADER_VALUE_2);
+        assertThat(response.get()).isNull();
+
+        retryResponse.complete(mockClientResponse(HttpStatusCode.OK_200));
+        assertThat(response.get().status()).isEqualTo(HttpStatusCode.OK_200);
+    }
+
+    @Test
+    public void should_retry_request_sent_on_stale_connection_to_another_address() throws Exception {
+        httpClientOptions.setMaxConnectRetries(1);
+        cut.retryBudget(new RetryBudget(10));
+        final AddressBalancer addressBalancer = new AddressBalancer("host", 8080, 30000, null, false);
+        addressBalancer.update(new InetAddress[] { InetAddress.getByName("10.0.0.1") });
+        cut.addressBalancer(addressBalancer);
+        final Promise<HttpClientResponse> staleResponse = Promise.promise();
+        final HttpClientRequest stale = mockClientRequest(staleResponse);
+        final HttpClientRequest retry = mockClientRequest(Promise.promise());
+        final List<Address> servers = new ArrayList<>();
+        when(client.request(any())).thenAnswer(invocation -> {
+            servers.add(invocation.<RequestOptions>getArgument(0).getServer());
+            return Future.succeededFuture(servers.size() == 1 ? stale : retry);
+        });
+
+        cut.connect(context, client, 8080, "host", "/", unused -> {}, result -> {});
+        cut.end();
+        addressBalancer.update(new InetAddress[] { InetAddress.getByName("10.0.0.2") });
+        staleResponse.fail(new HttpClosedException("Connection was closed"));
+
+        verify(retry).end();
+        assertThat(servers).hasSize(2).doesNotContainNull();
+        assertThat(servers.get(1)).isNotEqualTo(servers.get(0));
+    }
+
+    @Test
+    public void should_send_request_to_selected_address_and_retry_on_another_one() throws Exception {
+        httpClientOptions.setMaxConnectRetries(1);
+        cut.retryBudget(new RetryBudget(10));
+        final AddressBalancer addressBalancer = new AddressBalancer("host", 8080, 30000);
+        addressBalancer.update(new InetAddress[] { InetAddress.getByName("10.0.0.1"), InetAddress.getByName("10.0.0.2") });
+        cut.addressBalancer(addressBalancer);
+        final List<Address> servers = new ArrayList<>();
+        when(client.request(any())).thenAnswer(invocation -> {
+            servers.add(invocation.<RequestOptions>getArgument(0).getServer());
+            return servers.size() == 1
+                ? Future.failedFuture(new ConnectException("Connection refused"))
+                : Future.succeededFuture(httpClientRequest);
+        });
+
+        cut.connect(context, client, 8080, "host", "/", unused -> {}, result -> {});
+
+        assertThat(servers).hasSize(2).doesNotContainNull();
+        assertThat(servers.get(1)).isNotEqualTo(servers.get(0));
+        for (AddressBalancer.UpstreamAddress address : addressBalancer.addresses()) {
+            final boolean failed = address.socketAddress().equals(servers.get(0));
+            assertThat(address.isEjected()).isEqualTo(failed);
+            assertThat(address.inFlight()).isEqualTo(failed ? 0 : 1);
+        }
+    }
+
+    @Test
+    public void should_wait_for_first_lookup_before_selecting_address() throws Exception {
+        final AddressBalancer addressBalancer = new AddressBalancer("localhost", 8080, 30000);
+        cut.addressBalancer(addressBalancer);
+        final List<Address> servers = new CopyOnWriteArrayList<>();
+        when(client.request(any())).thenAnswer(invocation -> {
+            servers.add(invocation.<RequestOptions>getArgument(0).getServer());
+            return Future.succeededFuture(httpClientRequest);
+        });
+
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CompletableFuture<Void> connected = new CompletableFuture<>();
+            vertx.runOnContext(v -> cut.connect(context, client, 8080, "localhost", "/", unused -> connected.complete(null), result -> {}));
+            connected.get(5, TimeUnit.SECONDS);
+
+            assertThat(servers).hasSize(1).doesNotContainNull();
+            assertThat(Arrays.stream(addressBalancer.addresses()).map(AddressBalancer.UpstreamAddress::socketAddress))
+                .contains(servers.get(0));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void should_race_connection_to_other_address_family_when_preferred_one_is_slow() throws Exception {
+        httpClientOptions.setHappyEyeballsDelay(50);
+        final AddressBalancer addressBalancer = new AddressBalancer("host", 8080, 30000);
+        addressBalancer.update(new InetAddress[] { InetAddress.getByName("2001:db8::1"), InetAddress.getByName("10.0.0.1") });
+        cut.addressBalancer(addressBalancer);
+        final AddressBalancer.UpstreamAddress[] addresses = addressBalancer.addresses();
+
+        final Promise<HttpClientRequest> slowConnection = Promise.promise();
+        final List<Address> servers = new CopyOnWriteArrayList<>();
+        when(client.request(any())).thenAnswer(invocation -> {
+            servers.add(invocation.<RequestOptions>getArgument(0).getServer());
+            return servers.size() == 1 ? slowConnection.future() : Future.succeededFuture(httpClientRequest);
+        });
+
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CompletableFuture<Void> connected = new CompletableFuture<>();
+            vertx.runOnContext(v -> cut.connect(context, client, 8080, "host", "/", unused -> connected.complete(null), result -> {}));
+            connected.get(5, TimeUnit.SECONDS);
+
+            assertThat(servers).containsExactly(addresses[0].socketAddress(), addresses[1].socketAddress());
+            assertThat(addresses[0].inFlight()).isZero();
+            assertThat(addresses[1].inFlight()).isEqualTo(1);
+
+            // The connection to the preferred address is eventually established, it lost the race
+            final HttpClientRequest slowRequest = mockClientRequest(Promise.promise());
+            slowConnection.complete(slowRequest);
+            verify(slowRequest).reset();
+            verify(slowRequest, never()).end();
+            verify(slowRequest.connection(), never()).close();
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void should_not_race_connection_when_a_connection_to_the_address_is_open() throws Exception {
+        httpClientOptions.setHappyEyeballsDelay(50);
+        final AddressBalancer addressBalancer = new AddressBalancer("host", 8080, 30000);
+        addressBalancer.update(new InetAddress[] { InetAddress.getByName("10.0.0.1"), InetAddress.getByName("2001:db8::1") });
+        cut.addressBalancer(addressBalancer);
+        final EmbeddedChannel channel = new EmbeddedChannel() {
+            @Override
+            protected java.net.SocketAddress remoteAddress0() {
+                return new InetSocketAddress("10.0.0.1", 8080);
+            }
+        };
+        addressBalancer.connected(channel);
+
+        // The request waits for a connection of the pool, which a connection to the other family wouldn't speed up
+        final Promise<HttpClientRequest> pooledConnection = Promise.promise();
+        final List<Address> servers = new CopyOnWriteArrayList<>();
+        when(client.request(any())).thenAnswer(invocation -> {
+            servers.add(invocation.<RequestOptions>getArgument(0).getServer());
+            return pooledConnection.future();
+        });
+
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CompletableFuture<Void> connected = new CompletableFuture<>();
+            vertx.runOnContext(v -> cut.connect(context, client, 8080, "host", "/", unused -> connected.complete(null), result -> {}));
+            Thread.sleep(200);
+            assertThat(servers).containsExactly(addressBalancer.addresses()[0].socketAddress());
+
+            pooledConnection.complete(httpClientRequest);
+            connected.get(5, TimeUnit.SECONDS);
+            assertThat(servers).hasSize(1);
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void should_send_hedged_request_to_address_which_won_the_race() throws Exception {
+        httpClientOptions.setHappyEyeballsDelay(50);
+        httpClientOptions.setHedgingDelay(60000);
+        cut.retryBudget(new RetryBudget(10));
+        final AddressBalancer addressBalancer = new AddressBalancer("host", 8080, 30000);
+        addressBalancer.update(new InetAddress[] { InetAddress.getByName("2001:db8::1"), InetAddress.getByName("10.0.0.1") });
+        cut.addressBalancer(addressBalancer);
+        final AddressBalancer.UpstreamAddress[] addresses = addressBalancer.addresses();
+
+        final List<Address> servers = new CopyOnWriteArrayList<>();
+        when(client.request(any())).thenAnswer(invocation -> {
+            servers.add(invocation.<RequestOptions>getArgument(0).getServer());
+            return servers.size() == 1 ? Promise.promise().future() : Future.succeededFuture(mockClientRequest(Promise.promise()));
+        });
+
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CompletableFuture<Void> connected = new CompletableFuture<>();
+            vertx.runOnContext(v -> cut.connect(context, client, 8080, "host", "/", unused -> connected.complete(null), result -> {}));
+            connected.get(5, TimeUnit.SECONDS);
+
+            final CompletableFuture<Void> hedged = new CompletableFuture<>();
+            vertx.runOnContext(v -> {
+                cut.end();
+                cut.hedge();
+                hedged.complete(null);
+            });
+            hedged.get(5, TimeUnit.SECONDS);
+
+            assertThat(servers).containsExactly(addresses[0].socketAddress(), addresses[1].socketAddress(), addresses[1].socketAddress());
+        } finally {
+            vertx.close();
+        }
+    }
+
+    private HttpClientRequest mockClientRequest(Promise<HttpClientResponse> response) {
+        final HttpClientRequest clientRequest = mock(HttpClientRequest.class);
+        final MultiMap requestHeaders = MultiMap.caseInsensitiveMultiMap();
+        lenient().when(clientRequest.headers()).thenReturn(requestHeaders);
+        lenient().when(clientRequest.response()).thenReturn(response.future());
+        lenient().when(clientRequest.connection()).thenReturn(mock(io.vertx.core.http.HttpConnection.class));
+        lenient().when(clientRequest.end()).thenReturn(Future.succeededFuture());
+        lenient().when(clientRequest.reset()).thenReturn(Future.succeededFuture());
+        return clientRequest;
+    }
+
+    private HttpClientResponse mockClientResponse(int status) {
+        final HttpClientResponse clientResponse = mock(HttpClientResponse.class);
+        lenient().when(clientResponse.statusCode()).thenReturn(status);
+        lenient().when(clientResponse.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+        return clientResponse;
+    }
+
     private int getAvailablePort() {
         try (ServerSocket socket = new ServerSocket(0)) {
             return socket.getLocalPort();
@@ -16,15 +16,21 @@
 package io.gravitee.connector.http;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 import io.gravitee.common.http.HttpHeader;
 import io.gravitee.common.http.HttpMethod;
 import io.gravitee.connector.api.Connection;
 import io.gravitee.connector.api.EndpointException;
+import io.gravitee.connector.http.endpoint.CircuitBreakerOptions;
 import io.gravitee.connector.http.endpoint.HttpClientSslOptions;
 import io.gravitee.connector.http.endpoint.HttpEndpoint;
+import io.gravitee.connector.http.endpoint.ProtocolVersion;
+import io.gravitee.connector.http.endpoint.SslEngine;
 import io.gravitee.connector.http.endpoint.jks.JKSKeyStore;
 import io.gravitee.connector.http.endpoint.jks.JKSTrustStore;
 import io.gravitee.connector.http.endpoint.pkcs12.PKCS12KeyStore;
@@ -40,15 +46,19 @@ import io.gravitee.gateway.reactive.api.tracing.Tracer;
 import io.gravitee.node.api.configuration.Configuration;
 import io.gravitee.node.opentelemetry.tracer.noop.NoOpTracer;
 import io.gravitee.reporter.api.http.Metrics;
+import io.netty.util.AsciiString;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.http.*;
 import io.vertx.core.http.HttpConnection;
+import io.vertx.core.net.JdkSSLEngineOptions;
 import io.vertx.core.net.JksOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
 import io.vertx.core.net.PfxOptions;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
+import java.util.Set;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -91,10 +101,10 @@ public class HttpConnectorTest {
     HttpClient httpClient;
 
     @Spy
-    HttpHeaders spyHeaders;
+    HttpHeaders spyHeaders = HttpHeaders.create();
 
     @Captor
-    ArgumentCaptor<String> headerCaptor;
+    ArgumentCaptor<CharSequence> headerCaptor;
 
     io.gravitee.connector.http.endpoint.HttpClientOptions httpClientsOptions = new io.gravitee.connector.http.endpoint.HttpClientOptions();
 
@@ -112,7 +122,7 @@ public class HttpConnectorTest {
         lenient().when(request.metrics()).thenReturn(Metrics.on(0L).build());
         HttpClientRequest httpClientRequest = mock(HttpClientRequest.class);
         lenient().when(httpClient.request(any(RequestOptions.class))).thenReturn(Future.succeededFuture(httpClientRequest));
-        connector.httpClients.put(Thread.currentThread(), httpClient);
+        connector.httpClients.setShared(httpClient);
         lenient().when(request.headers()).thenReturn(spyHeaders);
         lenient().when(httpClientRequest.connection()).thenReturn(mock(HttpConnection.class));
         lenient().when(httpClientRequest.response()).thenReturn(Promise.<HttpClientResponse>promise().future());
@@ -129,13 +139,52 @@ public class HttpConnectorTest {
         when(endpoint.getHeaders()).thenReturn(
             Arrays.asList(new HttpHeader(HttpHeaderNames.HOST, "api.gravitee.io"), new HttpHeader(HttpHeaderNames.HOST, "api2.gravitee.io"))
         );
+        // Endpoint headers are compiled when the connector starts
+        connector.doStart();
+
+        connector.request(executionContext, request, connectionHandler);
+
+        // The endpoint Host header overrides the target one, only the last configured value is kept
+        verify(spyHeaders, times(2)).set(
+            argThat((CharSequence name) -> AsciiString.contentEqualsIgnoreCase(name, HttpHeaderNames.HOST)),
+            headerCaptor.capture()
+        );
+        List<CharSequence> allValues = headerCaptor.getAllValues();
+        assertEquals(2, allValues.size());
+        assertEquals("api.gravitee.io", allValues.get(0).toString());
+        assertEquals("api2.gravitee.io", allValues.get(1).toString());
+    }
+
+    @Test
+    public void shouldRejectRequestsOverConcurrencyLimit() throws Exception {
+        httpClientsOptions.setAdaptiveConcurrencyLimit(true);
+        httpClientsOptions.setMaxConcurrencyLimit(1);
+        connector.doStart();
+
+        connector.request(executionContext, request, connectionHandler);
+        connector.request(executionContext, request, connectionHandler);
+
+        verify(httpClient, times(1)).request(any(RequestOptions.class));
+        verify(connectionHandler, times(2)).handle(any());
+        assertEquals(1, connector.concurrencyLimiter().inFlight());
+        assertEquals(1, connector.concurrencyLimiter().rejected());
+    }
+
+    @Test
+    public void shouldFailFastWhenCircuitBreakerIsOpen() throws Exception {
+        CircuitBreakerOptions circuitBreakerOptions = new CircuitBreakerOptions();
+        circuitBreakerOptions.setEnabled(true);
+        circuitBreakerOptions.setMinimumCalls(1);
+        when(endpoint.getCircuitBreakerOptions()).thenReturn(circuitBreakerOptions);
+        connector.doStart();
+        connector.circuitBreaker().tryAcquire().failed();
 
         connector.request(executionContext, request, connectionHandler);
 
-        verify(spyHeaders, times(3)).set(eq(HttpHeaderNames.HOST), headerCaptor.capture());
-        List<String> allValues = headerCaptor.getAllValues();
-        assertEquals(3, allValues.size());
-        assertEquals("api2.gravitee.io", allValues.get(2));
+        verify(httpClient, never()).request(any(RequestOptions.class));
+        verify(connectionHandler).handle(any());
+        assertEquals(CircuitBreaker.State.OPEN, connector.circuitBreaker().state());
+        assertEquals(1, connector.circuitBreaker().rejected());
     }
 
     @Test
@@ -186,6 +235,91 @@ public class HttpConnectorTest {
         assertEquals(TRUSTSTORE, ((JksOptions) httpClientOptions.getTrustOptions()).getValue().toString());
     }
 
+    @Test
+    public void shouldCreateHttpClientOptions_Http2Settings() throws EndpointException {
+        httpClientsOptions.setVersion(ProtocolVersion.HTTP_2);
+        httpClientsOptions.setHttp2MultiplexingLimit(100);
+        httpClientsOptions.setHttp2MaxConcurrentStreams(50);
+        httpClientsOptions.setHttp2KeepAliveTimeout(30000);
+
+        HttpClientOptions httpClientOptions = connector.createHttpClientOptions();
+
+        assertEquals(HttpVersion.HTTP_2, httpClientOptions.getProtocolVersion());
+        assertEquals(100, httpClientOptions.getHttp2MultiplexingLimit());
+        assertEquals(HttpClientOptions.DEFAULT_HTTP2_CONNECTION_WINDOW_SIZE, httpClientOptions.getHttp2ConnectionWindowSize());
+        assertEquals(30, httpClientOptions.getHttp2KeepAliveTimeout());
+        assertEquals(Http2Settings.DEFAULT_INITIAL_WINDOW_SIZE, httpClientOptions.getInitialSettings().getInitialWindowSize());
+        assertEquals(50, httpClientOptions.getInitialSettings().getMaxConcurrentStreams());
+        assertEquals(4096, httpClientOptions.getInitialSettings().getHeaderTableSize());
+    }
+
+    @Test
+    public void shouldCreateHttpClientOptions_Http2FlowControlWindows() throws EndpointException {
+        httpClientsOptions.setVersion(ProtocolVersion.HTTP_2);
+        httpClientsOptions.setHttp2ConnectionWindowSize(4 * 1024 * 1024);
+        httpClientsOptions.setHttp2StreamWindowSize(1024 * 1024);
+
+        HttpClientOptions httpClientOptions = connector.createHttpClientOptions();
+
+        assertEquals(4 * 1024 * 1024, httpClientOptions.getHttp2ConnectionWindowSize());
+        assertEquals(1024 * 1024, httpClientOptions.getInitialSettings().getInitialWindowSize());
+    }
+
+    @Test
+    public void shouldCreateHttpClientOptions_TlsProtocolsAndCipherSuites() throws EndpointException {
+        HttpClientSslOptions httpClientSslOptions = new HttpClientSslOptions();
+        httpClientSslOptions.setEngine(SslEngine.JDK);
+        httpClientSslOptions.setProtocols(List.of("TLSv1.3"));
+        httpClientSslOptions.setCipherSuites(List.of("TLS_AES_128_GCM_SHA256", "TLS_CHACHA20_POLY1305_SHA256"));
+
+        when(endpoint.getHttpClientSslOptions()).thenReturn(httpClientSslOptions);
+
+        HttpClientOptions httpClientOptions = connector.createHttpClientOptions();
+
+        assertTrue(httpClientOptions.getSslEngineOptions() instanceof JdkSSLEngineOptions);
+        assertEquals(Set.of("TLSv1.3"), httpClientOptions.getEnabledSecureTransportProtocols());
+        assertEquals(
+            List.of("TLS_AES_128_GCM_SHA256", "TLS_CHACHA20_POLY1305_SHA256"),
+            List.copyOf(httpClientOptions.getEnabledCipherSuites())
+        );
+    }
+
+    @Test
+    public void shouldCreateHttpClientOptions_AutoSslEngine() throws EndpointException {
+        HttpClientSslOptions httpClientSslOptions = new HttpClientSslOptions();
+        httpClientSslOptions.setEngine(SslEngine.AUTO);
+
+        when(endpoint.getHttpClientSslOptions()).thenReturn(httpClientSslOptions);
+
+        HttpClientOptions httpClientOptions = connector.createHttpClientOptions();
+
+        assertEquals(OpenSSLEngineOptions.isAvailable(), httpClientOptions.getSslEngineOptions() instanceof OpenSSLEngineOptions);
+    }
+
+    @Test
+    public void shouldCreateHttpClientOptions_AutoSslEngineWithNamedGroups() throws EndpointException {
+        HttpClientSslOptions httpClientSslOptions = new HttpClientSslOptions();
+        httpClientSslOptions.setEngine(SslEngine.AUTO);
+        httpClientSslOptions.setNamedGroups(List.of("x25519"));
+
+        when(endpoint.getHttpClientSslOptions()).thenReturn(httpClientSslOptions);
+
+        HttpClientOptions httpClientOptions = connector.createHttpClientOptions();
+
+        assertFalse(httpClientOptions.getSslEngineOptions() instanceof OpenSSLEngineOptions);
+    }
+
+    @Test
+    public void shouldNotCreateHttpClientOptions_OpenSslEngineWithNamedGroups() {
+        HttpClientSslOptions httpClientSslOptions = new HttpClientSslOptions();
+        httpClientSslOptions.setNamedGroups(List.of("x25519"));
+
+        when(configuration.getProperty("http.ssl.openssl", Boolean.class, false)).thenReturn(true);
+        when(endpoint.getHttpClientSslOptions()).thenReturn(httpClientSslOptions);
+
+        assertThrows(EndpointException.class, () -> connector.createHttpClientOptions());
+    }
+
     @Nested
     class Create {
 
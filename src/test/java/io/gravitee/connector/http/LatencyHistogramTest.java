@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class LatencyHistogramTest {
+
+    private final LatencyHistogram cut = new LatencyHistogram();
+
+    @Test
+    void should_not_have_percentile_without_enough_samples() {
+        for (int i = 0; i < LatencyHistogram.MIN_SAMPLES / 2; i++) {
+            cut.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(cut.percentile95()).isEqualTo(-1);
+    }
+
+    @Test
+    void should_compute_95th_percentile() {
+        for (int i = 1; i <= 1000; i++) {
+            // 95% of the samples under 10ms, 5% at 500ms
+            cut.record(TimeUnit.MILLISECONDS.toNanos(i <= 950 ? 1 + i % 10 : 500));
+        }
+
+        assertThat(cut.percentile95()).isBetween(10L, 13L);
+    }
+
+    @Test
+    void should_follow_recent_response_times() {
+        for (int i = 0; i < 2048; i++) {
+            cut.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        for (int i = 0; i < 8192; i++) {
+            cut.record(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        assertThat(cut.percentile95()).isBetween(200L, 250L);
+    }
+}
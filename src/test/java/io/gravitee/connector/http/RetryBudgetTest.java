@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class RetryBudgetTest {
+
+    @Test
+    void should_allow_min_retries_without_any_request() {
+        RetryBudget cut = new RetryBudget(10);
+
+        for (int i = 0; i < RetryBudget.MIN_RETRIES; i++) {
+            assertThat(cut.tryRetry()).isTrue();
+        }
+
+        assertThat(cut.tryRetry()).isFalse();
+        assertThat(cut.retries()).isEqualTo(RetryBudget.MIN_RETRIES);
+        assertThat(cut.exhausted()).isEqualTo(1);
+    }
+
+    @Test
+    void should_allow_a_retry_every_ten_requests() {
+        RetryBudget cut = new RetryBudget(10);
+        for (int i = 0; i < RetryBudget.MIN_RETRIES; i++) {
+            cut.tryRetry();
+        }
+
+        for (int i = 0; i < 9; i++) {
+            cut.deposit();
+        }
+        assertThat(cut.tryRetry()).isFalse();
+
+        cut.deposit();
+        assertThat(cut.tryRetry()).isTrue();
+    }
+
+    @Test
+    void should_cap_retries_after_a_long_period_without_failure() {
+        RetryBudget cut = new RetryBudget(10);
+
+        for (int i = 0; i < 100_000; i++) {
+            cut.deposit();
+        }
+
+        int retries = 0;
+        while (cut.tryRetry()) {
+            retries++;
+        }
+        assertThat(retries).isEqualTo(RetryBudget.MAX_RETRIES);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.PfxOptions;
+import io.vertx.core.net.TrustOptions;
+import java.io.ByteArrayOutputStream;
+import java.security.KeyStore;
+import javax.net.ssl.TrustManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TlsMaterialCacheTest {
+
+    private final Vertx vertx = Vertx.vertx();
+
+    @AfterEach
+    void tearDown() {
+        vertx.close();
+    }
+
+    @Test
+    void should_share_entry_of_stores_with_same_content() {
+        int size = TlsMaterialCache.size();
+
+        TlsMaterialCache.Entry first = TlsMaterialCache.acquire(pfx("truststore", "secret"));
+        TlsMaterialCache.Entry second = TlsMaterialCache.acquire(pfx("truststore", "secret"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(TlsMaterialCache.size()).isEqualTo(size + 1);
+
+        TlsMaterialCache.release(first);
+        assertThat(TlsMaterialCache.size()).isEqualTo(size + 1);
+        TlsMaterialCache.release(second);
+        assertThat(TlsMaterialCache.size()).isEqualTo(size);
+    }
+
+    @Test
+    void should_not_share_entry_of_stores_with_different_content() {
+        TlsMaterialCache.Entry first = TlsMaterialCache.acquire(pfx("truststore", "secret"));
+        TlsMaterialCache.Entry second = TlsMaterialCache.acquire(pfx("truststore", "other"));
+
+        assertThat(second).isNotSameAs(first);
+
+        TlsMaterialCache.release(first);
+        TlsMaterialCache.release(second);
+    }
+
+    @Test
+    void should_not_share_unknown_options() throws Exception {
+        TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init((KeyStore) null);
+
+        assertThat(TlsMaterialCache.acquire(null)).isNull();
+        assertThat(TlsMaterialCache.acquire(TrustOptions.wrap(factory))).isNull();
+    }
+
+    @Test
+    void should_build_trust_manager_factory_once() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        keyStore.store(content, "secret".toCharArray());
+        PfxOptions options = new PfxOptions().setValue(Buffer.buffer(content.toByteArray())).setPassword("secret");
+
+        TlsMaterialCache.Entry entry = TlsMaterialCache.acquire(options);
+        TrustOptions shared = entry.trustOptions(vertx);
+
+        assertThat(shared).isNotInstanceOf(PfxOptions.class);
+        assertThat(entry.trustOptions(vertx)).isSameAs(shared);
+
+        TlsMaterialCache.release(entry);
+    }
+
+    @Test
+    void should_fall_back_to_original_options_when_store_is_invalid() {
+        PfxOptions options = pfx("not a store", "secret");
+
+        TlsMaterialCache.Entry entry = TlsMaterialCache.acquire(options);
+
+        assertThat(entry.trustOptions(vertx)).isSameAs(options);
+
+        TlsMaterialCache.release(entry);
+    }
+
+    private static PfxOptions pfx(String content, String password) {
+        return new PfxOptions().setValue(Buffer.buffer(content)).setPassword(password);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.gravitee.connector.http.endpoint.HttpClientSslOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslProvider;
+import io.vertx.core.net.JdkSSLEngineOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
+import io.vertx.core.net.SSLEngineOptions;
+import io.vertx.core.spi.tls.SslContextFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TlsSessionsTest {
+
+    private final TlsSessions cut = new TlsSessions(sslOptions(100, 600));
+
+    @Test
+    void should_keep_engine_of_client_options() {
+        SSLEngineOptions jdk = cut.engineOptions(null);
+        SSLEngineOptions openSsl = cut.engineOptions(new OpenSSLEngineOptions());
+
+        assertThat(jdk).isInstanceOf(JdkSSLEngineOptions.class);
+        assertThat(jdk.copy()).isInstanceOf(jdk.getClass());
+        assertThat(openSsl).isInstanceOf(OpenSSLEngineOptions.class);
+        assertThat(openSsl.copy()).isInstanceOf(openSsl.getClass());
+    }
+
+    @Test
+    void should_share_ssl_context_of_same_configuration() throws Exception {
+        SslContext first = clientFactory(0).useAlpn(true).applicationProtocols(new ArrayList<>(List.of("h2", "http/1.1"))).create();
+        SslContext second = clientFactory(0).applicationProtocols(new ArrayList<>(List.of("h2", "http/1.1"))).useAlpn(true).create();
+        SslContext other = clientFactory(0).useAlpn(false).create();
+
+        assertThat(second).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+    }
+
+    @Test
+    void should_build_new_ssl_context_once_material_is_reloaded() throws Exception {
+        SslContext previous = clientFactory(0).create();
+
+        cut.reloaded();
+
+        SslContext reloaded = clientFactory(1).create();
+        assertThat(reloaded).isNotSameAs(previous);
+        assertThat(clientFactory(1).create()).isSameAs(reloaded);
+        // A client not updated yet still builds contexts from the previous material, they are not shared
+        assertThat(clientFactory(0).create()).isNotSameAs(previous).isNotSameAs(reloaded);
+    }
+
+    @Test
+    void should_configure_session_cache() throws Exception {
+        SslContext context = clientFactory(0).create();
+
+        assertThat(context.sessionContext().getSessionCacheSize()).isEqualTo(100);
+        assertThat(context.sessionContext().getSessionTimeout()).isEqualTo(600);
+    }
+
+    @Test
+    void should_set_named_groups_on_engines() throws Exception {
+        HttpClientSslOptions options = sslOptions(100, 600);
+        options.setNamedGroups(List.of("x25519", "secp256r1"));
+
+        SSLEngine engine = new TlsSessions(options)
+            .factory(SslProvider.JDK, false, 0)
+            .forClient(true)
+            .create()
+            .newEngine(ByteBufAllocator.DEFAULT);
+
+        assertThat(engine.getSSLParameters().getNamedGroups()).containsExactly("x25519", "secp256r1");
+    }
+
+    @Test
+    void should_detect_resumed_session_from_its_id() {
+        assertThat(cut.isResumed(session(new byte[] { 1, 2, 3 }))).isFalse();
+        assertThat(cut.isResumed(session(new byte[] { 1, 2, 3 }))).isTrue();
+        assertThat(cut.isResumed(session(new byte[] { 4, 5, 6 }))).isFalse();
+        assertThat(cut.isResumed(session(new byte[0]))).isFalse();
+        assertThat(cut.isResumed(session(new byte[0]))).isFalse();
+    }
+
+    @Test
+    void should_register_handshake_meters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cut.bindTo(new EndpointMeters(registry, "default", "http://localhost:8080"));
+
+        cut.onHandshake(TimeUnit.MILLISECONDS.toNanos(10), false);
+        cut.onHandshake(TimeUnit.MILLISECONDS.toNanos(2), true);
+        cut.onHandshake(TimeUnit.MILLISECONDS.toNanos(3), true);
+        cut.onHandshakeFailure();
+
+        assertThat(handshakes(registry, "full").count()).isEqualTo(1);
+        assertThat(handshakes(registry, "resumed").count()).isEqualTo(2);
+        assertThat(handshakes(registry, "failed").count()).isEqualTo(1);
+        FunctionTimer handshakes = registry.get("gravitee.connector.http.tls.handshake").functionTimer();
+        assertThat(handshakes.count()).isEqualTo(3);
+        assertThat(handshakes.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(15);
+    }
+
+    private static FunctionCounter handshakes(MeterRegistry registry, String result) {
+        return registry.get("gravitee.connector.http.tls.handshakes").tags("endpoint", "default", "result", result).functionCounter();
+    }
+
+    private SslContextFactory clientFactory(int version) {
+        return cut.factory(SslProvider.JDK, false, version).forClient(true);
+    }
+
+    private static SSLSession session(byte[] id) {
+        SSLSession session = mock(SSLSession.class);
+        when(session.getId()).thenReturn(id);
+        return session;
+    }
+
+    private static HttpClientSslOptions sslOptions(int sessionCacheSize, int sessionTimeout) {
+        HttpClientSslOptions options = new HttpClientSslOptions();
+        options.setSessionCacheSize(sessionCacheSize);
+        options.setSessionTimeout(sessionTimeout);
+        return options;
+    }
+}
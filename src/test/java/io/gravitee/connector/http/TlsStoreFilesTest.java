@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.core.net.PfxOptions;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TlsStoreFilesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_collect_files_of_trust_and_key_stores() {
+        TlsStoreFiles files = TlsStoreFiles.of(
+            new PemTrustOptions().addCertPath("/certs/ca.pem"),
+            new PemKeyCertOptions().setCertPath("/certs/client.pem").setKeyPath("/certs/client.key")
+        );
+
+        assertThat(files.paths()).containsExactly("/certs/ca.pem", "/certs/client.pem", "/certs/client.key");
+    }
+
+    @Test
+    void should_ignore_stores_not_read_from_files() {
+        TlsStoreFiles files = TlsStoreFiles.of(new PfxOptions().setValue(Buffer.buffer("store")), null);
+
+        assertThat(files.isEmpty()).isTrue();
+        assertThat(files.version()).isEmpty();
+    }
+
+    @Test
+    void should_tell_stores_given_inline() {
+        assertThat(TlsStoreFiles.hasValues(new PfxOptions().setValue(Buffer.buffer("store")), null)).isTrue();
+        assertThat(TlsStoreFiles.hasValues(new PemTrustOptions().addCertPath("/certs/ca.pem"), new PemKeyCertOptions())).isFalse();
+    }
+
+    @Test
+    void should_change_version_when_a_file_is_rotated() throws Exception {
+        Path certificate = Files.writeString(directory.resolve("client.pem"), "first");
+        TlsStoreFiles files = TlsStoreFiles.of(new PemKeyCertOptions().setCertPath(certificate.toString()).setKeyPath("/none"));
+
+        String version = files.version();
+        assertThat(files.version()).isEqualTo(version);
+
+        Files.writeString(certificate, "second");
+
+        assertThat(files.version()).isNotEqualTo(version);
+    }
+
+    @Test
+    void should_change_version_when_a_file_is_removed() throws Exception {
+        Path store = Files.writeString(directory.resolve("truststore.p12"), "store");
+        TlsStoreFiles files = TlsStoreFiles.of(new PfxOptions().setPath(store.toString()));
+        String version = files.version();
+
+        Files.delete(store);
+
+        assertThat(files.version()).isNotEqualTo(version);
+    }
+
+    @Test
+    void should_build_stores_from_content_read_with_version() throws Exception {
+        Path store = Files.writeString(directory.resolve("truststore.p12"), "first");
+        PfxOptions options = new PfxOptions().setPath(store.toString()).setPassword("secret");
+        TlsStoreFiles files = TlsStoreFiles.of(options);
+
+        TlsStoreFiles.Snapshot snapshot = files.read();
+        Files.writeString(store, "second");
+
+        PfxOptions inlined = snapshot.inline(options);
+        assertThat(inlined.getPath()).isNull();
+        assertThat(inlined.getValue()).isEqualTo(Buffer.buffer("first"));
+        assertThat(inlined.getPassword()).isEqualTo("secret");
+        assertThat(snapshot.version()).isNotEqualTo(files.version());
+    }
+
+    @Test
+    void should_keep_key_and_certificate_pairs_when_building_stores() throws Exception {
+        Path certificate = Files.writeString(directory.resolve("client.pem"), "certificate");
+        Path key = Files.writeString(directory.resolve("client.key"), "key");
+        PemKeyCertOptions options = new PemKeyCertOptions()
+            .addCertPath(certificate.toString())
+            .addKeyPath(key.toString())
+            .addCertValue(Buffer.buffer("other certificate"))
+            .addKeyValue(Buffer.buffer("other key"));
+
+        PemKeyCertOptions inlined = TlsStoreFiles.of(options).read().inline(options);
+
+        assertThat(inlined.getCertPaths()).isEmpty();
+        assertThat(inlined.getCertValues()).containsExactly(Buffer.buffer("certificate"), Buffer.buffer("other certificate"));
+        assertThat(inlined.getKeyValues()).containsExactly(Buffer.buffer("key"), Buffer.buffer("other key"));
+    }
+
+    @Test
+    void should_keep_paths_of_stores_which_could_not_be_read() {
+        PemTrustOptions options = new PemTrustOptions().addCertPath(directory.resolve("missing.pem").toString());
+
+        assertThat(TlsStoreFiles.of(options).read().inline(options)).isSameAs(options);
+    }
+}
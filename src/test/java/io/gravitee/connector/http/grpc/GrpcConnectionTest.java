@@ -143,6 +143,65 @@ public class GrpcConnectionTest {
         assertThat(httpClientRequest.headers().getAll(HttpHeaderNames.CONTENT_TYPE)).hasSize(1).containsExactly("application/grpc");
     }
 
+    @Test
+    public void should_send_required_grpc_headers() {
+        cut.connect(
+            executionContext,
+            client,
+            getAvailablePort(),
+            "host",
+            "/",
+            unused -> {},
+            result -> new AtomicInteger(1).decrementAndGet()
+        );
+
+        cut.writeUpstreamHeaders();
+
+        assertThat(httpClientRequest.headers().getAll(HttpHeaderNames.CONTENT_TYPE)).containsExactly("application/grpc");
+        assertThat(httpClientRequest.headers().getAll("te")).containsExactly("trailers");
+    }
+
+    @Test
+    public void should_send_trailers_te_header_stripped_as_hop_by_hop_header() {
+        headers.add(HttpHeaderNames.CONTENT_TYPE, "application/grpc");
+        headers.add("te", "trailers");
+
+        cut.connect(
+            executionContext,
+            client,
+            getAvailablePort(),
+            "host",
+            "/",
+            unused -> {},
+            result -> new AtomicInteger(1).decrementAndGet()
+        );
+
+        cut.writeUpstreamHeaders();
+
+        // The client TE header is removed with the hop-by-hop headers, gRPC servers reject requests without it
+        assertThat(headers.contains("te")).isFalse();
+        assertThat(httpClientRequest.headers().getAll("te")).containsExactly("trailers");
+    }
+
+    @Test
+    public void should_keep_grpc_content_type_sent_by_client() {
+        headers.add(HttpHeaderNames.CONTENT_TYPE, "application/grpc+proto");
+
+        cut.connect(
+            executionContext,
+            client,
+            getAvailablePort(),
+            "host",
+            "/",
+            unused -> {},
+            result -> new AtomicInteger(1).decrementAndGet()
+        );
+
+        cut.writeUpstreamHeaders();
+
+        assertThat(httpClientRequest.headers().getAll(HttpHeaderNames.CONTENT_TYPE)).containsExactly("application/grpc+proto");
+    }
+
     @Test
     public void should_remove_host_header() {
         cut.connect(
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.vertx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class VertxBuffersTest {
+
+    @Test
+    void should_share_vertx_buffer_content_with_gateway_buffer() {
+        io.vertx.core.buffer.Buffer vertxBuffer = io.vertx.core.buffer.Buffer.buffer("hello");
+
+        Buffer buffer = VertxBuffers.toGateway(vertxBuffer);
+        vertxBuffer.setByte(0, (byte) 'j');
+
+        assertThat(buffer.length()).isEqualTo(5);
+        assertThat(buffer.toString()).isEqualTo("jello");
+    }
+
+    @Test
+    void should_share_gateway_buffer_content_with_vertx_buffer() {
+        Buffer buffer = Buffer.buffer("hello");
+
+        io.vertx.core.buffer.Buffer vertxBuffer = VertxBuffers.toVertx(buffer);
+
+        assertThat(vertxBuffer.toString()).isEqualTo("hello");
+        assertThat(VertxBuffers.toGateway(vertxBuffer).toString()).isEqualTo("hello");
+    }
+
+    @Test
+    void should_keep_reader_index_of_vertx_buffer_untouched() {
+        io.vertx.core.buffer.Buffer vertxBuffer = io.vertx.core.buffer.Buffer.buffer("hello");
+
+        VertxBuffers.toGateway(vertxBuffer).getBytes();
+
+        assertThat(vertxBuffer.getBytes()).isEqualTo("hello".getBytes());
+    }
+}
@@ -20,8 +20,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.gravitee.gateway.api.http.DefaultHttpHeaders;
 import io.gravitee.gateway.api.http.HttpHeaders;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -220,6 +223,68 @@ public class VertxHttpHeadersTest {
             );
     }
 
+    @Test
+    public void shouldReflectHeaderChangesInViews() {
+        final Set<String> keySet = cut.keySet();
+        final Collection<List<String>> values = cut.values();
+        final Set<Map.Entry<String, List<String>>> entrySet = cut.entrySet();
+
+        cut.add("Third-Header", "third-header-value");
+        cut.remove(FIRST_HEADER);
+
+        assertThat(keySet).containsExactly(SECOND_HEADER, "Third-Header");
+        assertThat(values).containsExactly(List.of(SECOND_HEADER_VALUE), List.of("third-header-value"));
+        assertThat(entrySet)
+            .containsExactly(
+                Map.entry(SECOND_HEADER, List.of(SECOND_HEADER_VALUE)),
+                Map.entry("Third-Header", List.of("third-header-value"))
+            );
+        assertThat(cut.keySet()).isSameAs(keySet);
+    }
+
+    @Test
+    public void shouldGroupHeaderNamesIgnoringCase() {
+        cut.add(FIRST_HEADER.toLowerCase(), "first-header-value-3");
+
+        assertThat(cut.keySet()).hasSize(2).containsExactly(FIRST_HEADER, SECOND_HEADER);
+        assertThat(cut.keySet().contains(FIRST_HEADER.toUpperCase())).isTrue();
+        assertThat(cut.values())
+            .containsExactly(List.of(FIRST_HEADER_VALUE_1, FIRST_HEADER_VALUE_2, "first-header-value-3"), List.of(SECOND_HEADER_VALUE));
+    }
+
+    @Test
+    public void shouldRemoveHeadersThroughViews() {
+        cut.add("Third-Header", "third-header-value");
+
+        final Iterator<String> names = cut.keySet().iterator();
+        assertThat(names.next()).isEqualTo(FIRST_HEADER);
+        names.remove();
+        assertThat(names.next()).isEqualTo(SECOND_HEADER);
+        assertThat(names.next()).isEqualTo("Third-Header");
+        assertThat(names.hasNext()).isFalse();
+        assertThat(cut.contains(FIRST_HEADER)).isFalse();
+
+        cut.entrySet().removeIf(entry -> entry.getKey().equals("Third-Header"));
+        assertThat(cut.keySet()).containsExactly(SECOND_HEADER);
+
+        cut.keySet().remove(SECOND_HEADER);
+        assertThat(cut.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldIterateManyAndNestedHeaderNames() {
+        for (int i = 0; i < 50; i++) {
+            cut.add("Header-" + i, "value-" + i);
+            cut.add("HEADER-" + i, "other-value-" + i);
+        }
+
+        assertThat(cut.keySet()).hasSize(52);
+        for (String name : cut.keySet()) {
+            assertThat(cut.keySet()).contains(name).hasSize(52);
+        }
+        assertThat(cut.get("header-49")).containsExactly("value-49", "other-value-49");
+    }
+
     @Test
     public void shouldGetFirst() {
         assertThat(cut.getFirst(FIRST_HEADER)).isEqualTo(FIRST_HEADER_VALUE_1);
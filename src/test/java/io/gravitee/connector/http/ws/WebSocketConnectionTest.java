@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.ws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.http.WebSocketFrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class WebSocketConnectionTest {
+
+    @Test
+    void should_relay_bytes_of_text_fragment_splitting_a_character() {
+        // First byte of "é" (0xC3 0xA9), the second one being in the next fragment
+        byte[] payload = { 'h', (byte) 0xC3 };
+        WebSocketFrame frame = new WebSocketFrame(new WebSocketFrameImpl(WebSocketFrameType.TEXT, Unpooled.wrappedBuffer(payload), false));
+
+        io.vertx.core.http.WebSocketFrame upstreamFrame = WebSocketConnection.toUpstreamFrame(frame);
+
+        assertThat(upstreamFrame.isText()).isTrue();
+        assertThat(upstreamFrame.isFinal()).isFalse();
+        assertThat(upstreamFrame.binaryData().getBytes()).isEqualTo(payload);
+    }
+}
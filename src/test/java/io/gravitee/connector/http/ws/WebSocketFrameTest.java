@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.connector.http.ws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.gateway.api.buffer.Buffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class WebSocketFrameTest {
+
+    @Test
+    void should_expose_text_frame_payload_as_utf8_bytes() {
+        WebSocketFrame frame = new WebSocketFrame(io.vertx.core.http.WebSocketFrame.textFrame("héllo", false));
+
+        assertThat(frame.type()).isEqualTo(io.gravitee.gateway.api.ws.WebSocketFrame.Type.TEXT);
+        assertThat(frame.isFinal()).isFalse();
+        assertThat(frame.data().getBytes()).isEqualTo("héllo".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void should_share_binary_frame_payload() {
+        WebSocketFrame frame = new WebSocketFrame(
+            io.vertx.core.http.WebSocketFrame.binaryFrame(io.vertx.core.buffer.Buffer.buffer("hello"), true)
+        );
+
+        Buffer data = frame.data();
+
+        assertThat(frame.type()).isEqualTo(io.gravitee.gateway.api.ws.WebSocketFrame.Type.BINARY);
+        assertThat(data.toString()).isEqualTo("hello");
+        assertThat(frame.data()).isSameAs(data);
+    }
+}